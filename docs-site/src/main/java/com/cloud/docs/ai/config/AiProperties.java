@@ -0,0 +1,483 @@
+package com.cloud.docs.ai.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Maps to configuration properties under the 'docs.ai' prefix.
+ * Holds the tuning knobs of the AI assistant's retrieval pipeline.
+ */
+@Component
+@ConfigurationProperties(prefix = "docs.ai")
+@Getter
+@Setter
+public class AiProperties {
+
+    private final Index index = new Index();
+    private final Embedding embedding = new Embedding();
+    private final AnswerCache answerCache = new AnswerCache();
+    private final Bulkhead bulkhead = new Bulkhead();
+    private final Retrieval retrieval = new Retrieval();
+    private final Context context = new Context();
+    private final Offline offline = new Offline();
+    private final Evaluation evaluation = new Evaluation();
+    private final Admin admin = new Admin();
+
+    /**
+     * Access to the admin operations that change state or cost real work (kernel switch, re-index, evaluation).
+     * The read-only stats endpoints are always available.
+     */
+    @Getter
+    @Setter
+    public static class Admin {
+
+        /**
+         * Expose the admin operations at all. Off by default: the docs site has no login, so anyone who can reach
+         * it could otherwise call them.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Value admin operations require in the {@code X-Admin-Token} header. While blank, every admin operation is
+         * refused even when {@link #enabled} is true.
+         */
+        private String token;
+    }
+
+    /**
+     * The recall/latency evaluation of the vector index variants, run at startup for CI or through the admin API.
+     */
+    @Getter
+    @Setter
+    public static class Evaluation {
+
+        /**
+         * Evaluate the index variants once the documents have been ingested, log the results and write
+         * {@code output-file}.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Index types to build and compare; brute force doubles as the exact reference.
+         */
+        private List<IndexType> indexTypes = List.of(IndexType.values());
+
+        /**
+         * A fixed query set, embedded once per run. When empty, stored chunks are sampled as queries.
+         */
+        private List<String> queries = List.of();
+
+        /**
+         * Stored chunks used as queries when no fixed query set is configured.
+         */
+        private int sampleSize = 200;
+
+        private int k = 10;
+
+        /**
+         * Where the startup evaluation writes its JSON report; not written when blank.
+         */
+        private String outputFile;
+
+        /**
+         * Exit with a non-zero status if any evaluated index has a lower recall@k. 0 disables the check.
+         */
+        private double minRecall = 0.0;
+
+        /**
+         * Shut the application down once the startup evaluation has finished, for use as a CI step.
+         */
+        private boolean exitWhenDone = false;
+    }
+
+    /**
+     * Tuning of the in-process stand-ins used instead of Vertex AI when the {@code offline} profile is active.
+     */
+    @Getter
+    @Setter
+    public static class Offline {
+
+        /**
+         * Added to every call of the hashing embedding model, to mimic a remote endpoint.
+         */
+        private Duration embeddingLatency = Duration.ZERO;
+
+        /**
+         * Fixed cost of every chat call, before any token is produced.
+         */
+        private Duration chatBaseLatency = Duration.ofMillis(300);
+
+        /**
+         * Cost per prompt token (estimated at four characters each), so smaller contexts answer faster.
+         */
+        private Duration inputTokenLatency = Duration.ofNanos(100_000);
+
+        /**
+         * Cost per generated token; streamed answers emit a token at this interval.
+         */
+        private Duration outputTokenLatency = Duration.ofMillis(10);
+
+        /**
+         * Length of the stand-in answers, in words.
+         */
+        private int answerTokens = 60;
+
+        private final Benchmark benchmark = new Benchmark();
+    }
+
+    @Getter
+    @Setter
+    public static class Benchmark {
+
+        /**
+         * Run the benchmark once the documents have been ingested.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Questions asked in total.
+         */
+        private int requests = 500;
+
+        /**
+         * Questions in flight at once. Keep this within the bulkhead's capacity to measure latency rather than
+         * load shedding.
+         */
+        private int concurrency = 8;
+
+        /**
+         * Asked round-robin, each with the request number appended so no two requests are identical.
+         */
+        private List<String> questions = List.of(
+                "How do I authenticate API requests?",
+                "How can I refund a payment?",
+                "What does the error INSUFFICIENT_FUNDS mean?",
+                "How do I create a customer?",
+                "Which payment methods are supported?",
+                "How are webhooks signed?",
+                "What are the rate limits?",
+                "How do I get started with the sandbox?");
+    }
+
+    @Getter
+    @Setter
+    public static class Context {
+
+        /**
+         * Chunks retrieved per question, from which the prompt context is selected.
+         */
+        private int candidates = 10;
+
+        /**
+         * Budget for the context part of the prompt, estimated at four characters per token.
+         */
+        private int maxTokens = 560;
+
+        /**
+         * Trade-off between relevance (1.0) and diversity (0.0) when selecting chunks.
+         */
+        private double mmrLambda = 0.7;
+    }
+
+    @Getter
+    @Setter
+    public static class Retrieval {
+
+        /**
+         * Fuse BM25 keyword results with vector results. When off, questions use vector search alone, and keyword
+         * search is only used if the query cannot be embedded.
+         */
+        private boolean hybrid = true;
+
+        /**
+         * Rows each retriever contributes to the fusion, before the best {@code k} are kept.
+         */
+        private int candidatesPerRetriever = 20;
+
+        /**
+         * The reciprocal rank fusion constant; larger values flatten the advantage of the very top ranks.
+         */
+        private int rrfRankConstant = 60;
+    }
+
+    @Getter
+    @Setter
+    public static class Bulkhead {
+
+        /**
+         * Questions answered at the same time, each on its own thread of the assistant's executor.
+         */
+        private int maxConcurrent = 8;
+
+        /**
+         * Questions allowed to wait for a free slot; beyond this, requests are rejected with 429 straight away.
+         */
+        private int queueCapacity = 32;
+
+        /**
+         * Longest a question may wait for a free slot before it is rejected with 503.
+         */
+        private Duration queueTimeout = Duration.ofSeconds(15);
+
+        /**
+         * Sent as Retry-After with every rejection.
+         */
+        private Duration retryAfter = Duration.ofSeconds(10);
+    }
+
+    @Getter
+    @Setter
+    public static class AnswerCache {
+
+        /**
+         * Reuse the answer to an earlier question that is a close paraphrase and retrieved the same chunks.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Minimum cosine similarity between two question embeddings for them to count as the same question.
+         */
+        private double similarityThreshold = 0.95;
+
+        /**
+         * Maximum number of answers kept; the least recently used one is evicted first.
+         */
+        private int maxEntries = 500;
+    }
+
+    @Getter
+    @Setter
+    public static class Embedding {
+
+        /**
+         * Name of the embedding model. Part of the cache file name, so switching models never reuses stale vectors.
+         */
+        private String model = "gemini-embedding-001";
+
+        /**
+         * Dimension of the vectors the model returns. Part of the cache file name as well.
+         */
+        private int dimensions = 3072;
+
+        private final Cache cache = new Cache();
+        private final Batching batching = new Batching();
+        private final QueryCache queryCache = new QueryCache();
+        private final Chunking chunking = new Chunking();
+    }
+
+    @Getter
+    @Setter
+    public static class Chunking {
+
+        /**
+         * Upper bound on the size of a chunk, estimated at four characters per token.
+         */
+        private int maxTokens = 256;
+
+        /**
+         * A heading only starts a new chunk once the current one holds at least this much, so short sections are
+         * merged with the next one instead of becoming chunks of their own.
+         */
+        private int minTokens = 64;
+    }
+
+    @Getter
+    @Setter
+    public static class QueryCache {
+
+        /**
+         * Keep recent query embeddings in memory, so repeated questions skip the remote embedding call.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Maximum number of query embeddings kept; the least recently used one is evicted first.
+         */
+        private int maxEntries = 1000;
+    }
+
+    @Getter
+    @Setter
+    public static class Batching {
+
+        /**
+         * Texts sent to the embedding model in one request.
+         */
+        private int batchSize = 16;
+
+        /**
+         * Batch requests allowed in flight at the same time.
+         */
+        private int maxInFlight = 4;
+
+        /**
+         * Attempts per batch, including the first, when the model reports throttling or a transient failure.
+         */
+        private int maxAttempts = 5;
+
+        /**
+         * Delay before the first retry; doubled after every further attempt, with jitter.
+         */
+        private Duration initialBackoff = Duration.ofMillis(500);
+
+        /**
+         * Upper bound for the delay between retries.
+         */
+        private Duration maxBackoff = Duration.ofSeconds(20);
+    }
+
+    @Getter
+    @Setter
+    public static class Cache {
+
+        /**
+         * Persist document embeddings on disk, keyed by the SHA-256 of the chunk text.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Directory holding one cache file per model and dimension.
+         */
+        private String directory = "data/embedding-cache";
+    }
+
+    @Getter
+    @Setter
+    public static class Index {
+
+        /**
+         * Which nearest-neighbour index backs VectorStore.search.
+         * BRUTE_FORCE is exact; HNSW is approximate and scales sub-linearly; INT8 scans 1-byte-per-dimension
+         * codes, BINARY scans 1-bit-per-dimension sign codes and MATRYOSHKA scans a short prefix of every vector,
+         * all three rescoring the best candidates at full precision.
+         */
+        private IndexType type = IndexType.BRUTE_FORCE;
+
+        /**
+         * Number of stored chunks sampled as queries when measuring an approximate index's recall
+         * against brute force. Set to 0 to skip the measurement.
+         */
+        private int recallSampleSize = 100;
+
+        /**
+         * Dot-product kernel used for every similarity. AUTO picks the Vector API when the JVM was started with
+         * {@code --add-modules jdk.incubator.vector} and falls back to the scalar loop otherwise.
+         * Can be switched at runtime through the admin endpoint.
+         */
+        private KernelType kernel = KernelType.AUTO;
+
+        /**
+         * Keep the full-precision vectors in a direct buffer outside the Java heap. When unset, this follows
+         * {@link #type}: INT8, BINARY and MATRYOSHKA only read full vectors to rescore a short candidate list, so
+         * they keep them off-heap and the heap holds just their compact codes; BRUTE_FORCE and HNSW read full
+         * vectors on every query and keep them on-heap.
+         */
+        private Boolean offHeapVectors;
+
+        private final Exact exact = new Exact();
+        private final Hnsw hnsw = new Hnsw();
+        private final Quantization quantization = new Quantization();
+        private final Matryoshka matryoshka = new Matryoshka();
+
+        /**
+         * Whether the vector slab should be allocated off-heap: as configured, or else by {@link #type}.
+         */
+        public boolean useOffHeapVectors() {
+            if (offHeapVectors != null) {
+                return offHeapVectors;
+            }
+            return type == IndexType.INT8 || type == IndexType.BINARY || type == IndexType.MATRYOSHKA;
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class Matryoshka {
+
+        /**
+         * Leading dimensions kept in the primary scan array, between 1 and {@code docs.ai.embedding.dimensions}.
+         * gemini-embedding-001 is trained to stay accurate when truncated to 768, 1536 or fewer dimensions.
+         */
+        private int prefixDimensions = 256;
+
+        /**
+         * The prefix scan keeps {@code k} times this many candidates for full-precision rescoring.
+         */
+        private int rescoreMultiplier = 8;
+    }
+
+    @Getter
+    @Setter
+    public static class Exact {
+
+        /**
+         * Worker threads of the pool that runs partitioned exact scans. Defaults to the number of cores.
+         */
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+
+        /**
+         * Rows scanned by one task. Corpora no larger than this are scanned on the calling thread.
+         */
+        private int partitionSize = 2048;
+    }
+
+    @Getter
+    @Setter
+    public static class Hnsw {
+
+        /**
+         * Maximum links per node on the upper layers (twice this on the base layer).
+         */
+        private int m = 16;
+
+        /**
+         * Candidate list size while linking a newly inserted chunk.
+         */
+        private int efConstruction = 200;
+
+        /**
+         * Candidate list size while answering a query. Higher values raise recall and latency.
+         */
+        private int efSearch = 64;
+
+        /**
+         * Seed for the level generator, so a given corpus always produces the same graph.
+         */
+        private long seed = 42L;
+    }
+
+    @Getter
+    @Setter
+    public static class Quantization {
+
+        /**
+         * The int8 scan keeps {@code k} times this many candidates for full-precision rescoring.
+         */
+        private int rescoreMultiplier = 4;
+
+        /**
+         * The binary (sign-bit) scan keeps {@code k} times this many candidates for full-precision rescoring.
+         * One bit per dimension is coarse, so this pool is larger than the int8 one.
+         */
+        private int binaryRescoreMultiplier = 10;
+    }
+
+    public enum IndexType {
+        BRUTE_FORCE,
+        HNSW,
+        INT8,
+        BINARY,
+        MATRYOSHKA
+    }
+
+    public enum KernelType {
+        AUTO,
+        SCALAR,
+        VECTOR_API
+    }
+}
@@ -0,0 +1,200 @@
+package com.cloud.docs.ai.controller;
+
+import com.cloud.docs.ai.config.AiProperties;
+import com.cloud.docs.ai.model.BulkheadStats;
+import com.cloud.docs.ai.model.CacheStats;
+import com.cloud.docs.ai.model.CoalescingStats;
+import com.cloud.docs.ai.model.EvaluationReport;
+import com.cloud.docs.ai.model.LatencyStats;
+import com.cloud.docs.ai.service.AiAssistantService;
+import com.cloud.docs.ai.service.AiBulkhead;
+import com.cloud.docs.ai.service.DocumentIngestService;
+import com.cloud.docs.ai.service.QueryEmbeddingCache;
+import com.cloud.docs.ai.service.RetrievalEvaluator;
+import com.cloud.docs.ai.service.SemanticAnswerCache;
+import com.cloud.docs.ai.service.StageLatencyRecorder;
+import com.cloud.docs.ai.service.VectorStore;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * REST Controller for operating the AI Assistant's retrieval pipeline at runtime.
+ * <p>
+ * The stats endpoints are read-only and always available. Operations that change state or do real work answer
+ * 404 unless {@code docs.ai.admin.enabled=true}, and 403 unless the request carries {@code docs.ai.admin.token}
+ * in the {@value #TOKEN_HEADER} header. A blank token refuses every such operation rather than leaving them open.
+ */
+@RestController
+@RequestMapping("/api/ai/admin")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "AI Assistant Admin", description = "Operational endpoints for the documentation AI assistant.")
+public class AiAdminController {
+
+    static final String TOKEN_HEADER = "X-Admin-Token";
+
+    private final VectorStore vectorStore;
+    private final DocumentIngestService documentIngestService;
+    private final AiAssistantService aiAssistantService;
+    private final AiBulkhead aiBulkhead;
+    private final QueryEmbeddingCache queryEmbeddingCache;
+    private final SemanticAnswerCache semanticAnswerCache;
+    private final StageLatencyRecorder latencyRecorder;
+    private final RetrievalEvaluator retrievalEvaluator;
+    private final AiProperties aiProperties;
+
+    @Operation(summary = "Show the similarity kernel used by the vector store")
+    @GetMapping("/kernel")
+    public ResponseEntity<Map<String, String>> getKernel() {
+        return ResponseEntity.ok(Map.of("kernel", vectorStore.getKernelName()));
+    }
+
+    @Operation(summary = "Switch the similarity kernel used by the vector store (auto, scalar or vector-api)")
+    @PostMapping("/kernel")
+    public ResponseEntity<Map<String, String>> switchKernel(@RequestHeader(value = TOKEN_HEADER, required = false) String token,
+                                                            @RequestParam("type") String type) {
+        ResponseEntity<Map<String, String>> denied = checkAdminAccess(token);
+        if (denied != null) {
+            return denied;
+        }
+        AiProperties.KernelType kernelType;
+        try {
+            kernelType = AiProperties.KernelType.valueOf(type.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Unknown kernel type: " + type));
+        }
+        log.info("Switching similarity kernel to {} on admin request.", kernelType);
+        try {
+            return ResponseEntity.ok(Map.of("kernel", vectorStore.switchKernel(kernelType)));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Reloads the API specifications and re-scans the docs hubs, then re-runs the ingest. Chunks whose content is
+     * unchanged keep their stored vector, so only edited or new chunks are embedded (plus those of sources that
+     * failed before, e.g. while the embedding endpoint was down), and chunks that no longer exist are compacted away.
+     * Publishing the result counts as a new store version, which clears the semantic answer cache.
+     */
+    @Operation(summary = "Reload the documentation and re-index it, embedding only new or edited chunks")
+    @PostMapping("/reindex")
+    public ResponseEntity<?> reindex(@RequestHeader(value = TOKEN_HEADER, required = false) String token) {
+        ResponseEntity<Map<String, String>> denied = checkAdminAccess(token);
+        if (denied != null) {
+            return denied;
+        }
+        if (!documentIngestService.startReindex()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(documentIngestService.getStatus());
+        }
+        log.info("Incremental re-index started on admin request.");
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(documentIngestService.getStatus());
+    }
+
+    @Operation(summary = "Show hit and miss counters of the assistant's request-path caches")
+    @GetMapping("/cache-stats")
+    public ResponseEntity<Map<String, CacheStats>> getCacheStats() {
+        return ResponseEntity.ok(Map.of(
+                "queryEmbedding", queryEmbeddingCache.stats(),
+                "semanticAnswer", semanticAnswerCache.stats()));
+    }
+
+    @Operation(summary = "Show how many identical concurrent questions were collapsed into one computation")
+    @GetMapping("/coalescing-stats")
+    public ResponseEntity<CoalescingStats> getCoalescingStats() {
+        return ResponseEntity.ok(aiAssistantService.getCoalescingStats());
+    }
+
+    @Operation(summary = "Show the load on the assistant's bulkhead and how many questions it has shed")
+    @GetMapping("/bulkhead-stats")
+    public ResponseEntity<BulkheadStats> getBulkheadStats() {
+        return ResponseEntity.ok(aiBulkhead.stats());
+    }
+
+    @Operation(summary = "Show the latency of each stage of answering a question: embed, search, assemble and generate")
+    @GetMapping("/latency-stats")
+    public ResponseEntity<Map<StageLatencyRecorder.Stage, LatencyStats>> getLatencyStats() {
+        return ResponseEntity.ok(latencyRecorder.stats());
+    }
+
+    @Operation(summary = "Show the last report comparing the vector index variants against brute force")
+    @GetMapping("/evaluation")
+    public ResponseEntity<?> getEvaluation() {
+        EvaluationReport report = retrievalEvaluator.getLastReport();
+        if (report == null) {
+            String status = retrievalEvaluator.isRunning() ? "running" : "none";
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("status", status));
+        }
+        return ResponseEntity.ok(report);
+    }
+
+    @Operation(summary = "Start comparing recall@k, latency, throughput and memory of the vector index variants against brute force")
+    @PostMapping("/evaluation")
+    public ResponseEntity<?> startEvaluation(@RequestHeader(value = TOKEN_HEADER, required = false) String token,
+                                             @RequestParam(value = "types", required = false) List<String> types,
+                                             @RequestParam(value = "k", required = false) Integer k,
+                                             @RequestParam(value = "sampleSize", required = false) Integer sampleSize) {
+        ResponseEntity<Map<String, String>> denied = checkAdminAccess(token);
+        if (denied != null) {
+            return denied;
+        }
+        AiProperties.Evaluation config = aiProperties.getEvaluation();
+        List<AiProperties.IndexType> indexTypes = config.getIndexTypes();
+        if (types != null && !types.isEmpty()) {
+            indexTypes = new ArrayList<>();
+            for (String type : types) {
+                try {
+                    indexTypes.add(AiProperties.IndexType.valueOf(type.trim().toUpperCase(Locale.ROOT).replace('-', '_')));
+                } catch (IllegalArgumentException e) {
+                    return ResponseEntity.badRequest().body(Map.of("error", "Unknown index type: " + type));
+                }
+            }
+        }
+        if (!retrievalEvaluator.startAsync(indexTypes, k != null ? k : config.getK(),
+                sampleSize != null ? sampleSize : config.getSampleSize())) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("status", "running"));
+        }
+        log.info("Evaluation of index types {} started on admin request.", indexTypes);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(Map.of("status", "running"));
+    }
+
+    /**
+     * Returns the response refusing an admin operation, or {@code null} if the caller may run it.
+     */
+    private ResponseEntity<Map<String, String>> checkAdminAccess(String token) {
+        AiProperties.Admin config = aiProperties.getAdmin();
+        if (!config.isEnabled()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("error", "AI admin operations are disabled (docs.ai.admin.enabled=false)."));
+        }
+        String expected = config.getToken();
+        if (expected == null || expected.isBlank()) {
+            log.warn("Refused an AI admin operation: docs.ai.admin.enabled is true but docs.ai.admin.token is blank.");
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("error", "AI admin operations need docs.ai.admin.token to be set."));
+        }
+        if (token == null || !MessageDigest.isEqual(
+                expected.getBytes(StandardCharsets.UTF_8), token.getBytes(StandardCharsets.UTF_8))) {
+            log.warn("Rejected an AI admin operation with a missing or wrong {} header.", TOKEN_HEADER);
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", "Invalid " + TOKEN_HEADER + " header."));
+        }
+        return null;
+    }
+}
@@ -1,18 +1,33 @@
 package com.cloud.docs.ai.controller;
 
+import com.cloud.docs.ai.model.AiAnswerStream;
 import com.cloud.docs.ai.model.AiQuery;
-import com.cloud.docs.ai.model.AiResponse;
+import com.cloud.docs.ai.model.IngestStatus;
 import com.cloud.docs.ai.service.AiAssistantService;
+import com.cloud.docs.ai.service.AiBulkhead;
+import com.cloud.docs.ai.service.AiOverloadedException;
+import com.cloud.docs.ai.service.DocumentIngestService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * REST Controller for the AI Assistant backend.
@@ -25,13 +40,113 @@ import org.springframework.web.bind.annotation.RestController;
 @Tag(name = "AI Assistant", description = "Endpoints for interacting with the documentation AI assistant.")
 public class AiAssistantController {
 
+    private static final String WARMING_RETRY_AFTER_SECONDS = "10";
+    private static final long STREAM_TIMEOUT_MILLIS = 120_000L;
+
     private final AiAssistantService aiAssistantService;
+    private final DocumentIngestService documentIngestService;
+    private final AiBulkhead aiBulkhead;
 
+    /**
+     * Answered asynchronously on the assistant's bulkhead, so the servlet thread is returned to the pool
+     * while the LLM works.
+     */
     @Operation(summary = "Ask a question to the AI documentation assistant")
     @PostMapping("/ask")
-    public ResponseEntity<AiResponse> askQuestion(@Valid @RequestBody AiQuery aiQuery) {
+    public CompletableFuture<ResponseEntity<?>> askQuestion(@Valid @RequestBody AiQuery aiQuery) {
         log.debug("Received AI query from frontend: {}", aiQuery.query());
-        AiResponse response = aiAssistantService.askQuestion(aiQuery.query());
-        return ResponseEntity.ok(response);
+        if (!documentIngestService.isReady()) {
+            return CompletableFuture.completedFuture(indexNotReady(documentIngestService.getStatus()));
+        }
+        return aiAssistantService.askQuestion(aiQuery.query(), aiQuery.scopeOrAll())
+                .thenApply(ResponseEntity::ok);
+    }
+
+    /**
+     * Streams the answer as server-sent events: one {@code sources} event with the retrieved chunks, then a
+     * {@code token} event ({@code {"text": ...}}) per piece of generated text, and finally {@code done}, or
+     * {@code error} if generation fails midway. Payloads are JSON so whitespace in tokens survives SSE framing.
+     * <p>
+     * The whole stream runs on the assistant's bulkhead and holds one of its slots until the answer is complete.
+     */
+    @Operation(summary = "Ask a question and stream the answer as server-sent events")
+    @PostMapping("/ask/stream")
+    public ResponseEntity<?> streamQuestion(@Valid @RequestBody AiQuery aiQuery) {
+        log.debug("Received streaming AI query from frontend: {}", aiQuery.query());
+        if (!documentIngestService.isReady()) {
+            return indexNotReady(documentIngestService.getStatus());
+        }
+
+        SseEmitter emitter = new SseEmitter(STREAM_TIMEOUT_MILLIS);
+        aiBulkhead.submit(() -> {
+            AiAnswerStream answer = aiAssistantService.streamQuestion(aiQuery.query(), aiQuery.scopeOrAll());
+            sendEvent(emitter, "sources", answer.sources());
+            // A failed send (client gone, emitter timed out) cancels the LLM stream and ends this task
+            answer.tokens()
+                    .doOnNext(token -> sendEvent(emitter, "token", Map.of("text", token)))
+                    .blockLast();
+            sendEvent(emitter, "done", Map.of());
+            emitter.complete();
+            return null;
+        }).whenComplete((ignored, error) -> {
+            if (error == null) {
+                return;
+            }
+            if (error instanceof UncheckedIOException) {
+                emitter.completeWithError(error);
+                return;
+            }
+            String message = error instanceof AiOverloadedException
+                    ? error.getMessage() + " Please try again in a moment."
+                    : "The answer could not be completed.";
+            if (!(error instanceof AiOverloadedException)) {
+                log.error("Streaming AI answer failed for query: '{}'", aiQuery.query(), error);
+            }
+            try {
+                sendEvent(emitter, "error", Map.of("message", message));
+                emitter.complete();
+            } catch (UncheckedIOException | IllegalStateException e) {
+                emitter.completeWithError(e);
+            }
+        });
+        return ResponseEntity.ok(emitter);
+    }
+
+    @Operation(summary = "Show the progress of the assistant's document index")
+    @GetMapping("/status")
+    public ResponseEntity<IngestStatus> getStatus() {
+        return ResponseEntity.ok(documentIngestService.getStatus());
+    }
+
+    /**
+     * Sheds load with a fast rejection: 429 when the bulkhead's queue is full, 503 when a question waited too long.
+     */
+    @ExceptionHandler(AiOverloadedException.class)
+    public ResponseEntity<Map<String, Object>> handleOverload(AiOverloadedException e) {
+        HttpStatus status = e.getReason() == AiOverloadedException.Reason.QUEUE_FULL
+                ? HttpStatus.TOO_MANY_REQUESTS
+                : HttpStatus.SERVICE_UNAVAILABLE;
+        return ResponseEntity.status(status)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, e.getRetryAfter().toSeconds())))
+                .body(Map.of("status", "busy", "message", e.getMessage() + " Please try again in a moment."));
+    }
+
+    private static void sendEvent(SseEmitter emitter, String name, Object data) {
+        try {
+            emitter.send(SseEmitter.event().name(name).data(data));
+        } catch (IOException e) {
+            // Propagates through the token stream, which cancels the LLM call
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private ResponseEntity<Map<String, Object>> indexNotReady(IngestStatus status) {
+        String message = status.state() == IngestStatus.State.FAILED
+                ? "The assistant's document index could not be built. Please try again later."
+                : "The assistant is still indexing the documentation (" + status.sourcesDone() + " of "
+                        + status.sourcesTotal() + " sources loaded). Please try again in a moment.";
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, WARMING_RETRY_AFTER_SECONDS)
+                .body(Map.of("status", status.state().name().toLowerCase(Locale.ROOT), "message", message));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,93 @@
+package com.cloud.docs.ai.index;
+
+import com.cloud.docs.search.TopKHeap;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Binary-quantized prefilter: every row is reduced to its sign bits, one bit per dimension packed into
+ * {@code long}s (384 bytes for a 3072-dimension embedding), and scanned by Hamming distance with
+ * {@link Long#bitCount(long)}. The {@code k * rescoreMultiplier} closest rows form the candidate pool, which
+ * is rescored by exact cosine similarity against the slab.
+ * <p>
+ * Sign bits need no training, so rows are encoded once when they are added.
+ */
+public class BinaryQuantizedIndex implements VectorIndex {
+
+    private final VectorSlab slab;
+    private final ForkJoinPool pool;
+    private final int partitionSize;
+    private final int rescoreMultiplier;
+    private final int words;
+
+    private long[] bits = new long[0];
+    private int size;
+
+    public BinaryQuantizedIndex(VectorSlab slab, ForkJoinPool pool, int partitionSize, int rescoreMultiplier) {
+        this.slab = slab;
+        this.pool = pool;
+        this.partitionSize = partitionSize;
+        this.rescoreMultiplier = Math.max(rescoreMultiplier, 1);
+        this.words = (slab.dimension() + Long.SIZE - 1) / Long.SIZE;
+    }
+
+    @Override
+    public String name() {
+        return "binary(rescore=" + rescoreMultiplier + "x)";
+    }
+
+    @Override
+    public long bytesPerVector() {
+        return (long) words * Long.BYTES;
+    }
+
+    @Override
+    public void add(int row) {
+        if (row != size) {
+            throw new IllegalStateException("Rows must be added in order; expected " + size + " but got " + row);
+        }
+        if ((row + 1) * words > bits.length) {
+            bits = Arrays.copyOf(bits, VectorSlab.grownLength(bits.length, (row + 1) * words));
+        }
+        encode(slab.vector(row), bits, row * words);
+        size++;
+    }
+
+    @Override
+    public int[] search(float[] query, int k) {
+        if (size == 0 || k <= 0) {
+            return new int[0];
+        }
+        long[] queryBits = new long[words];
+        encode(query, queryBits, 0);
+
+        int[] candidates = PartitionedScan.topK(pool, size, k * rescoreMultiplier, partitionSize,
+                row -> -hammingDistance(queryBits, row));
+
+        float[] unitQuery = VectorSlab.normalize(query);
+        RowScorer exact = slab.scorer(unitQuery);
+        TopKHeap rescored = new TopKHeap(k);
+        for (int row : candidates) {
+            rescored.offer(row, exact.score(row));
+        }
+        return rescored.drainDescending();
+    }
+
+    private int hammingDistance(long[] queryBits, int row) {
+        int offset = row * words;
+        int distance = 0;
+        for (int w = 0; w < words; w++) {
+            distance += Long.bitCount(queryBits[w] ^ bits[offset + w]);
+        }
+        return distance;
+    }
+
+    private static void encode(float[] vector, long[] target, int offset) {
+        for (int d = 0; d < vector.length; d++) {
+            if (vector[d] > 0.0f) {
+                target[offset + d / Long.SIZE] |= 1L << (d % Long.SIZE);
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.cloud.docs.ai.index;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Exact search: scores every row of the slab against the query.
+ * This is the reference that approximate indexes are measured against.
+ * <p>
+ * The scan is partitioned across a {@link ForkJoinPool} with a bounded top-k heap per partition,
+ * see {@link PartitionedScan}.
+ */
+public class BruteForceIndex implements VectorIndex {
+
+    private final VectorSlab slab;
+    private final ForkJoinPool pool;
+    private final int partitionSize;
+
+    public BruteForceIndex(VectorSlab slab, ForkJoinPool pool, int partitionSize) {
+        this.slab = slab;
+        this.pool = pool;
+        this.partitionSize = partitionSize;
+    }
+
+    @Override
+    public String name() {
+        return "brute-force";
+    }
+
+    @Override
+    public void add(int row) {
+        // Nothing to maintain; every search scans the slab.
+    }
+
+    @Override
+    public int[] search(float[] query, int k) {
+        float[] unitQuery = VectorSlab.normalize(query);
+        return PartitionedScan.topK(pool, slab.size(), k, partitionSize, slab.scorer(unitQuery));
+    }
+}
@@ -0,0 +1,253 @@
+package com.cloud.docs.ai.index;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+/**
+ * Hierarchical Navigable Small World graph (Malkov &amp; Yashunin) over the rows of a {@link VectorSlab}.
+ * <p>
+ * Every row is linked to up to {@code m} neighbours on the upper layers and {@code 2 * m} on the base layer,
+ * chosen with the diversity heuristic from the paper. {@code efConstruction} controls how many candidates are
+ * considered while linking a new row, {@code efSearch} how many are kept while answering a query; raising either
+ * trades latency for recall.
+ * <p>
+ * This class is not thread-safe for writers; the owning VectorStore only adds rows while building an index and
+ * never after it has been published for searching.
+ */
+public class HnswIndex implements VectorIndex {
+
+    private static final int MAX_LEVEL = 16;
+    private static final int ARRAY_HEADER_BYTES = 16;
+    private static final Comparator<Candidate> BY_SCORE = Comparator.comparingDouble(Candidate::score);
+
+    private final VectorSlab slab;
+    private final int m;
+    private final int efConstruction;
+    private final int efSearch;
+    private final double levelMultiplier;
+    private final Random random;
+
+    /**
+     * {@code links.get(node)[level]} holds the neighbour count at index 0 followed by the neighbour rows.
+     */
+    private final List<int[][]> links = new ArrayList<>();
+    private int entryPoint = -1;
+    private int topLevel = -1;
+
+    public HnswIndex(VectorSlab slab, int m, int efConstruction, int efSearch, long seed) {
+        if (m < 2) {
+            throw new IllegalArgumentException("HNSW m must be at least 2, got " + m);
+        }
+        this.slab = slab;
+        this.m = m;
+        this.efConstruction = Math.max(efConstruction, m);
+        this.efSearch = Math.max(efSearch, 1);
+        this.levelMultiplier = 1.0 / Math.log(m);
+        this.random = new Random(seed);
+    }
+
+    @Override
+    public String name() {
+        return "hnsw(m=" + m + ", efConstruction=" + efConstruction + ", efSearch=" + efSearch + ")";
+    }
+
+    /**
+     * The neighbour lists, counting a 16-byte header for every array and a 4-byte reference per level.
+     */
+    @Override
+    public long bytesPerVector() {
+        if (links.isEmpty()) {
+            return 0L;
+        }
+        long total = 0L;
+        for (int[][] nodeLinks : links) {
+            total += ARRAY_HEADER_BYTES + (long) nodeLinks.length * Integer.BYTES;
+            for (int[] levelLinks : nodeLinks) {
+                total += ARRAY_HEADER_BYTES + (long) levelLinks.length * Integer.BYTES;
+            }
+        }
+        return total / links.size();
+    }
+
+    @Override
+    public void add(int row) {
+        if (row != links.size()) {
+            throw new IllegalStateException("Rows must be added in order; expected " + links.size() + " but got " + row);
+        }
+        int level = randomLevel();
+        int[][] nodeLinks = new int[level + 1][];
+        for (int l = 0; l <= level; l++) {
+            nodeLinks[l] = new int[1 + maxLinks(l)];
+        }
+        links.add(nodeLinks);
+
+        if (entryPoint < 0) {
+            entryPoint = row;
+            topLevel = level;
+            return;
+        }
+
+        Scorer scorer = node -> slab.dot(row, node);
+        List<Candidate> entries = List.of(new Candidate(entryPoint, scorer.score(entryPoint)));
+        for (int l = topLevel; l > level; l--) {
+            entries = searchLayer(scorer, entries, 1, l);
+        }
+        for (int l = Math.min(level, topLevel); l >= 0; l--) {
+            List<Candidate> nearest = searchLayer(scorer, entries, efConstruction, l);
+            for (Candidate neighbour : selectNeighbours(nearest, m)) {
+                connect(row, neighbour.node(), l);
+                connect(neighbour.node(), row, l);
+            }
+            entries = nearest;
+        }
+
+        if (level > topLevel) {
+            topLevel = level;
+            entryPoint = row;
+        }
+    }
+
+    @Override
+    public int[] search(float[] query, int k) {
+        if (entryPoint < 0 || k <= 0) {
+            return new int[0];
+        }
+        float[] unitQuery = VectorSlab.normalize(query);
+        Scorer scorer = slab.scorer(unitQuery)::score;
+
+        List<Candidate> entries = List.of(new Candidate(entryPoint, scorer.score(entryPoint)));
+        for (int l = topLevel; l > 0; l--) {
+            entries = searchLayer(scorer, entries, 1, l);
+        }
+        List<Candidate> nearest = searchLayer(scorer, entries, Math.max(efSearch, k), 0);
+
+        int[] rows = new int[Math.min(k, nearest.size())];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = nearest.get(i).node();
+        }
+        return rows;
+    }
+
+    /**
+     * Best-first search of a single layer. Returns up to {@code ef} candidates, best first.
+     */
+    private List<Candidate> searchLayer(Scorer scorer, List<Candidate> entries, int ef, int level) {
+        BitSet visited = new BitSet(links.size());
+        PriorityQueue<Candidate> candidates = new PriorityQueue<>(BY_SCORE.reversed());
+        PriorityQueue<Candidate> results = new PriorityQueue<>(BY_SCORE);
+
+        for (Candidate entry : entries) {
+            visited.set(entry.node());
+            candidates.add(entry);
+            results.add(entry);
+            if (results.size() > ef) {
+                results.poll();
+            }
+        }
+
+        while (!candidates.isEmpty()) {
+            Candidate current = candidates.poll();
+            if (results.size() >= ef && current.score() < results.peek().score()) {
+                break;
+            }
+            int[] neighbours = links.get(current.node())[level];
+            for (int i = 1; i <= neighbours[0]; i++) {
+                int node = neighbours[i];
+                if (visited.get(node)) {
+                    continue;
+                }
+                visited.set(node);
+                float score = scorer.score(node);
+                if (results.size() < ef || score > results.peek().score()) {
+                    Candidate candidate = new Candidate(node, score);
+                    candidates.add(candidate);
+                    results.add(candidate);
+                    if (results.size() > ef) {
+                        results.poll();
+                    }
+                }
+            }
+        }
+
+        List<Candidate> ordered = new ArrayList<>(results);
+        ordered.sort(BY_SCORE.reversed());
+        return ordered;
+    }
+
+    /**
+     * The neighbour-selection heuristic: a candidate is kept only if it is closer to the base node than to any
+     * neighbour already kept, which spreads links in different directions. Remaining slots are filled with the
+     * best pruned candidates so sparse regions stay connected.
+     *
+     * @param candidates Candidates ordered best first, scored against the base node.
+     */
+    private List<Candidate> selectNeighbours(List<Candidate> candidates, int limit) {
+        List<Candidate> selected = new ArrayList<>(limit);
+        List<Candidate> pruned = new ArrayList<>();
+        for (Candidate candidate : candidates) {
+            if (selected.size() >= limit) {
+                break;
+            }
+            boolean diverse = true;
+            for (Candidate kept : selected) {
+                if (slab.dot(candidate.node(), kept.node()) > candidate.score()) {
+                    diverse = false;
+                    break;
+                }
+            }
+            if (diverse) {
+                selected.add(candidate);
+            } else {
+                pruned.add(candidate);
+            }
+        }
+        for (int i = 0; i < pruned.size() && selected.size() < limit; i++) {
+            selected.add(pruned.get(i));
+        }
+        return selected;
+    }
+
+    private void connect(int from, int to, int level) {
+        int[] neighbours = links.get(from)[level];
+        int count = neighbours[0];
+        if (count < neighbours.length - 1) {
+            neighbours[count + 1] = to;
+            neighbours[0] = count + 1;
+            return;
+        }
+
+        // The node is full: re-select its neighbourhood from the existing links plus the new one.
+        List<Candidate> candidates = new ArrayList<>(count + 1);
+        for (int i = 1; i <= count; i++) {
+            candidates.add(new Candidate(neighbours[i], slab.dot(from, neighbours[i])));
+        }
+        candidates.add(new Candidate(to, slab.dot(from, to)));
+        candidates.sort(BY_SCORE.reversed());
+
+        List<Candidate> selected = selectNeighbours(candidates, neighbours.length - 1);
+        neighbours[0] = selected.size();
+        for (int i = 0; i < selected.size(); i++) {
+            neighbours[i + 1] = selected.get(i).node();
+        }
+    }
+
+    private int maxLinks(int level) {
+        return level == 0 ? 2 * m : m;
+    }
+
+    private int randomLevel() {
+        double level = -Math.log(1.0 - random.nextDouble()) * levelMultiplier;
+        return (int) Math.min(level, MAX_LEVEL);
+    }
+
+    @FunctionalInterface
+    private interface Scorer {
+        float score(int node);
+    }
+
+    private record Candidate(int node, float score) {}
+}
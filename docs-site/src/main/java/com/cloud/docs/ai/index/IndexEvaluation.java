@@ -0,0 +1,23 @@
+package com.cloud.docs.ai.index;
+
+/**
+ * How one index variant performed against exact brute-force search over the same vectors.
+ *
+ * @param type                The configured index type, e.g. {@code INT8}.
+ * @param index               The index's own name, including its parameters.
+ * @param queries             The number of queries run.
+ * @param k                   The number of neighbours requested per query.
+ * @param recall              The mean fraction of the exact top-k that the index also returned, between 0 and 1.
+ * @param buildMillis         Time to add every row and optimize the index.
+ * @param p50Micros           Median single-query latency.
+ * @param p95Micros           95th percentile single-query latency.
+ * @param p99Micros           99th percentile single-query latency.
+ * @param maxMicros           Slowest query.
+ * @param queriesPerSecond    Throughput of one caller issuing the queries back to back.
+ * @param indexBytesPerVector What the index holds per row on top of the full-precision vectors.
+ * @param heapBytesPerVector  Index plus full-precision vectors on the Java heap per row; off-heap vectors do not count.
+ */
+public record IndexEvaluation(String type, String index, int queries, int k, double recall, double buildMillis,
+                              double p50Micros, double p95Micros, double p99Micros, double maxMicros,
+                              double queriesPerSecond, long indexBytesPerVector, long heapBytesPerVector) {
+}
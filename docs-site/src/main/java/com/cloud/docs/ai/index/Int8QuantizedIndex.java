@@ -0,0 +1,149 @@
+package com.cloud.docs.ai.index;
+
+import com.cloud.docs.search.TopKHeap;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Scalar-quantized search: every row is stored as one signed byte per dimension, with a per-dimension
+ * offset and scale, and scanned with an integer dot product. The best {@code k * rescoreMultiplier} candidates
+ * are then rescored against the full-precision rows of the slab, which can live off-heap.
+ * <p>
+ * A stored value is reconstructed as {@code min[d] + scale[d] * (code + 128)}. For a query {@code q} the dot
+ * product therefore equals a query-only constant plus {@code sum(q[d] * scale[d] * code[d])}, so ranking only
+ * needs the weights {@code q[d] * scale[d]}, which are themselves quantized to bytes per query.
+ * <p>
+ * Until {@link #optimize()} has run, rows are quantized over the range [-1, 1] that bounds every component
+ * of a unit vector; optimizing learns the actual per-dimension range and requantizes all rows.
+ */
+public class Int8QuantizedIndex implements VectorIndex {
+
+    private static final int LEVELS = 255;
+
+    private final VectorSlab slab;
+    private final ForkJoinPool pool;
+    private final int partitionSize;
+    private final int rescoreMultiplier;
+    private final int dimension;
+
+    private final float[] min;
+    private final float[] scale;
+    private byte[] codes = new byte[0];
+    private int size;
+
+    public Int8QuantizedIndex(VectorSlab slab, ForkJoinPool pool, int partitionSize, int rescoreMultiplier) {
+        this.slab = slab;
+        this.pool = pool;
+        this.partitionSize = partitionSize;
+        this.rescoreMultiplier = Math.max(rescoreMultiplier, 1);
+        this.dimension = slab.dimension();
+        this.min = new float[dimension];
+        this.scale = new float[dimension];
+        Arrays.fill(min, -1.0f);
+        Arrays.fill(scale, 2.0f / LEVELS);
+    }
+
+    @Override
+    public String name() {
+        return "int8(rescore=" + rescoreMultiplier + "x)";
+    }
+
+    @Override
+    public long bytesPerVector() {
+        return dimension;
+    }
+
+    @Override
+    public void add(int row) {
+        if (row != size) {
+            throw new IllegalStateException("Rows must be added in order; expected " + size + " but got " + row);
+        }
+        if ((row + 1) * dimension > codes.length) {
+            codes = Arrays.copyOf(codes, VectorSlab.grownLength(codes.length, (row + 1) * dimension));
+        }
+        quantize(row, slab.vector(row));
+        size++;
+    }
+
+    /**
+     * Learns the per-dimension value range from the stored rows and requantizes every row against it.
+     */
+    @Override
+    public void optimize() {
+        if (size == 0) {
+            return;
+        }
+        float[] max = new float[dimension];
+        Arrays.fill(min, Float.POSITIVE_INFINITY);
+        Arrays.fill(max, Float.NEGATIVE_INFINITY);
+        for (int row = 0; row < size; row++) {
+            float[] vector = slab.vector(row);
+            for (int d = 0; d < dimension; d++) {
+                min[d] = Math.min(min[d], vector[d]);
+                max[d] = Math.max(max[d], vector[d]);
+            }
+        }
+        for (int d = 0; d < dimension; d++) {
+            float range = max[d] - min[d];
+            scale[d] = range > 0.0f ? range / LEVELS : 1.0f;
+        }
+        for (int row = 0; row < size; row++) {
+            quantize(row, slab.vector(row));
+        }
+    }
+
+    @Override
+    public int[] search(float[] query, int k) {
+        if (size == 0 || k <= 0) {
+            return new int[0];
+        }
+        float[] unitQuery = VectorSlab.normalize(query);
+        byte[] weights = quantizeQuery(unitQuery);
+
+        int[] candidates = PartitionedScan.topK(pool, size, k * rescoreMultiplier, partitionSize,
+                row -> integerDot(weights, row));
+
+        RowScorer exact = slab.scorer(unitQuery);
+        TopKHeap rescored = new TopKHeap(k);
+        for (int row : candidates) {
+            rescored.offer(row, exact.score(row));
+        }
+        return rescored.drainDescending();
+    }
+
+    private void quantize(int row, float[] vector) {
+        int offset = row * dimension;
+        for (int d = 0; d < dimension; d++) {
+            int level = Math.round((vector[d] - min[d]) / scale[d]);
+            codes[offset + d] = (byte) (Math.max(0, Math.min(LEVELS, level)) - 128);
+        }
+    }
+
+    private byte[] quantizeQuery(float[] unitQuery) {
+        float[] weights = new float[dimension];
+        float maxAbs = 0.0f;
+        for (int d = 0; d < dimension; d++) {
+            weights[d] = unitQuery[d] * scale[d];
+            maxAbs = Math.max(maxAbs, Math.abs(weights[d]));
+        }
+        byte[] quantized = new byte[dimension];
+        if (maxAbs == 0.0f) {
+            return quantized;
+        }
+        float factor = 127.0f / maxAbs;
+        for (int d = 0; d < dimension; d++) {
+            quantized[d] = (byte) Math.round(weights[d] * factor);
+        }
+        return quantized;
+    }
+
+    private float integerDot(byte[] weights, int row) {
+        int offset = row * dimension;
+        int sum = 0;
+        for (int d = 0; d < dimension; d++) {
+            sum += weights[d] * codes[offset + d];
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,69 @@
+package com.cloud.docs.ai.index;
+
+import com.cloud.docs.search.TopKHeap;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Exact top-k over a contiguous range of rows, split across a {@link ForkJoinPool}.
+ * <p>
+ * The row range is halved until a partition holds at most {@code partitionSize} rows. Each partition scans its
+ * rows into its own {@link TopKHeap}, so nothing is allocated per candidate, and the partial heaps are merged
+ * pairwise as the tasks join. Ranges no larger than one partition are scanned on the calling thread.
+ */
+public final class PartitionedScan {
+
+    private PartitionedScan() {
+    }
+
+    public static int[] topK(ForkJoinPool pool, int rowCount, int k, int partitionSize, RowScorer scorer) {
+        if (rowCount <= 0 || k <= 0) {
+            return new int[0];
+        }
+        int effectivePartition = Math.max(partitionSize, k);
+        TopKHeap heap = rowCount <= effectivePartition
+                ? scan(0, rowCount, k, scorer)
+                : pool.invoke(new ScanTask(0, rowCount, k, effectivePartition, scorer));
+        return heap.drainDescending();
+    }
+
+    private static TopKHeap scan(int from, int to, int k, RowScorer scorer) {
+        TopKHeap heap = new TopKHeap(k);
+        for (int row = from; row < to; row++) {
+            heap.offer(row, scorer.score(row));
+        }
+        return heap;
+    }
+
+    private static final class ScanTask extends RecursiveTask<TopKHeap> {
+
+        private final int from;
+        private final int to;
+        private final int k;
+        private final int partitionSize;
+        private final RowScorer scorer;
+
+        private ScanTask(int from, int to, int k, int partitionSize, RowScorer scorer) {
+            this.from = from;
+            this.to = to;
+            this.k = k;
+            this.partitionSize = partitionSize;
+            this.scorer = scorer;
+        }
+
+        @Override
+        protected TopKHeap compute() {
+            if (to - from <= partitionSize) {
+                return scan(from, to, k, scorer);
+            }
+            int middle = (from + to) >>> 1;
+            ScanTask left = new ScanTask(from, middle, k, partitionSize, scorer);
+            ScanTask right = new ScanTask(middle, to, k, partitionSize, scorer);
+            left.fork();
+            TopKHeap merged = right.compute();
+            merged.merge(left.join());
+            return merged;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.cloud.docs.ai.index;
+
+/**
+ * The recall of an index against exact brute-force search.
+ *
+ * @param index   The name of the index that was measured.
+ * @param queries The number of sampled queries.
+ * @param k       The number of neighbours requested per query.
+ * @param recall  The mean fraction of the exact top-k that the index also returned, between 0 and 1.
+ */
+public record RecallReport(String index, int queries, int k, double recall) {
+}
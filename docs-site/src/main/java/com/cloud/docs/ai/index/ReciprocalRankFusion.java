@@ -0,0 +1,32 @@
+package com.cloud.docs.ai.index;
+
+import com.cloud.docs.search.TopKHeap;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Merges ranked row lists from different retrievers (Cormack et al., 2009). A row scores
+ * {@code sum(1 / (rankConstant + rank))} over the lists it appears in, with ranks starting at 1, so only positions
+ * matter and BM25 scores and cosine similarities never have to be put on a common scale.
+ */
+public final class ReciprocalRankFusion {
+
+    private ReciprocalRankFusion() {
+    }
+
+    /**
+     * Returns at most {@code k} rows, best fused score first.
+     */
+    public static int[] fuse(int k, int rankConstant, int[]... rankings) {
+        Map<Integer, Float> scores = new HashMap<>();
+        for (int[] ranking : rankings) {
+            for (int rank = 0; rank < ranking.length; rank++) {
+                scores.merge(ranking[rank], 1.0f / (rankConstant + rank + 1), Float::sum);
+            }
+        }
+        TopKHeap heap = new TopKHeap(Math.max(1, k));
+        scores.forEach(heap::offer);
+        return heap.drainDescending();
+    }
+}
@@ -0,0 +1,10 @@
+package com.cloud.docs.ai.index;
+
+/**
+ * Scores a single row of the slab against whatever the caller is searching for. Higher is more similar.
+ */
+@FunctionalInterface
+public interface RowScorer {
+
+    float score(int row);
+}
@@ -0,0 +1,26 @@
+package com.cloud.docs.ai.index;
+
+/**
+ * Plain Java dot product. Always available, and the reference the SIMD kernel is compared against.
+ */
+public final class ScalarKernel implements SimilarityKernel {
+
+    public static final ScalarKernel INSTANCE = new ScalarKernel();
+
+    private ScalarKernel() {
+    }
+
+    @Override
+    public String name() {
+        return "scalar";
+    }
+
+    @Override
+    public float dot(float[] a, int aOffset, float[] b, int bOffset, int length) {
+        float sum = 0.0f;
+        for (int i = 0; i < length; i++) {
+            sum += a[aOffset + i] * b[bOffset + i];
+        }
+        return sum;
+    }
+}
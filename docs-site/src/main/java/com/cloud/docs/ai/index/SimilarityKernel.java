@@ -0,0 +1,20 @@
+package com.cloud.docs.ai.index;
+
+/**
+ * The inner loop of every vector comparison: a dot product over two float ranges.
+ * Stored rows and queries are unit length, so the dot product is the cosine similarity.
+ */
+public interface SimilarityKernel {
+
+    /**
+     * Whether the JVM was started with {@code --add-modules jdk.incubator.vector}, which {@link VectorApiKernel}
+     * needs. Kept out of that class so the check itself never loads the incubator module.
+     */
+    static boolean isVectorApiAvailable() {
+        return ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+    }
+
+    String name();
+
+    float dot(float[] a, int aOffset, float[] b, int bOffset, int length);
+}
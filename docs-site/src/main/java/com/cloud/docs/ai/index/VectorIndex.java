@@ -0,0 +1,38 @@
+package com.cloud.docs.ai.index;
+
+/**
+ * A nearest-neighbour index over the rows of a {@link VectorSlab}.
+ * Implementations are told about every row appended to the slab and answer top-k queries by row number.
+ */
+public interface VectorIndex {
+
+    /**
+     * A short, human-readable name used in logs and recall reports.
+     */
+    String name();
+
+    /**
+     * Indexes a row that has just been appended to the slab.
+     */
+    void add(int row);
+
+    /**
+     * Called once a bulk ingest has finished, so indexes that learn from the data (e.g. quantizers) can retrain.
+     * Searching remains correct without it.
+     */
+    default void optimize() {
+    }
+
+    /**
+     * Returns the rows most similar to the query, best first, at most {@code k} of them.
+     */
+    int[] search(float[] query, int k);
+
+    /**
+     * Approximate bytes the index holds per row on top of the slab's full-precision vectors, for comparing the
+     * memory footprint of index variants. Indexes that search the slab directly hold nothing extra.
+     */
+    default long bytesPerVector() {
+        return 0L;
+    }
+}
@@ -0,0 +1,219 @@
+package com.cloud.docs.ai.index;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+
+/**
+ * A contiguous, growable slab of fixed-dimension float vectors.
+ * Row {@code i} occupies {@code [i * dimension, (i + 1) * dimension)} of a single {@code float[]}, or of a direct
+ * {@link FloatBuffer} when the slab is kept off-heap.
+ * <p>
+ * Rows are normalized to unit length when they are appended, so cosine similarity against a normalized query
+ * is a single dot product. On-heap rows are compared by the current {@link SimilarityKernel}, which can be swapped
+ * at any time to compare implementations on live traffic. Off-heap rows are compared with a plain loop; that layout
+ * is meant for quantized indexes, which only touch full-precision rows to rescore a short candidate list.
+ * <p>
+ * A {@code float[]} and a direct buffer are both indexed by {@code int}, so a slab holds at most
+ * {@link #maxRows(int, boolean)} rows; appending beyond that fails instead of wrapping the offsets around.
+ * <p>
+ * This class is not thread-safe for writers; the owning VectorStore only appends while building a snapshot and
+ * never after it has been published for searching.
+ */
+public class VectorSlab {
+
+    private static final int INITIAL_CAPACITY = 256;
+    /** Largest {@code float[]} the JVMs in use allocate reliably; a few header words below {@link Integer#MAX_VALUE}. */
+    private static final int MAX_ARRAY_LENGTH = Integer.MAX_VALUE - 8;
+
+    private final int dimension;
+    private final boolean offHeap;
+    private float[] vectors = new float[0];
+    private FloatBuffer offHeapVectors = FloatBuffer.allocate(0);
+    private int capacity;
+    private int size;
+    private volatile SimilarityKernel kernel;
+
+    public VectorSlab(int dimension, SimilarityKernel kernel) {
+        this(dimension, kernel, false);
+    }
+
+    public VectorSlab(int dimension, SimilarityKernel kernel, boolean offHeap) {
+        if (dimension <= 0) {
+            throw new IllegalArgumentException("Dimension must be positive, got " + dimension);
+        }
+        this.dimension = dimension;
+        this.kernel = kernel;
+        this.offHeap = offHeap;
+    }
+
+    /**
+     * Appends a normalized copy of the vector and returns its row number.
+     */
+    public int append(float[] vector) {
+        if (vector.length != dimension) {
+            throw new IllegalArgumentException("Vector dimension " + vector.length + " does not match the slab dimension " + dimension);
+        }
+        ensureCapacity(size + 1);
+        int offset = size * dimension;
+        float norm = norm(vector);
+        float scale = norm == 0.0f ? 0.0f : 1.0f / norm;
+        for (int i = 0; i < dimension; i++) {
+            if (offHeap) {
+                offHeapVectors.put(offset + i, vector[i] * scale);
+            } else {
+                vectors[offset + i] = vector[i] * scale;
+            }
+        }
+        return size++;
+    }
+
+    public int dimension() {
+        return dimension;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isOffHeap() {
+        return offHeap;
+    }
+
+    /**
+     * Bytes of vector data held on the Java heap per row.
+     */
+    public long heapBytesPerRow() {
+        return offHeap ? 0L : (long) dimension * Float.BYTES;
+    }
+
+    public SimilarityKernel kernel() {
+        return kernel;
+    }
+
+    public void setKernel(SimilarityKernel kernel) {
+        this.kernel = kernel;
+    }
+
+    /**
+     * Cosine similarity between a stored row and a query already passed through {@link #normalize(float[])}.
+     */
+    public float dot(int row, float[] unitQuery) {
+        return dot(kernel, row, unitQuery);
+    }
+
+    /**
+     * Scores rows against a query already passed through {@link #normalize(float[])}, like {@link #dot(int, float[])}
+     * but with the kernel read once: a search scores every row with the same kernel even if it is switched meanwhile.
+     */
+    public RowScorer scorer(float[] unitQuery) {
+        SimilarityKernel current = kernel;
+        return row -> dot(current, row, unitQuery);
+    }
+
+    private float dot(SimilarityKernel kernel, int row, float[] unitQuery) {
+        int offset = row * dimension;
+        if (!offHeap) {
+            return kernel.dot(vectors, offset, unitQuery, 0, dimension);
+        }
+        float sum = 0.0f;
+        for (int i = 0; i < dimension; i++) {
+            sum += offHeapVectors.get(offset + i) * unitQuery[i];
+        }
+        return sum;
+    }
+
+    /**
+     * Cosine similarity between two stored rows.
+     */
+    public float dot(int rowA, int rowB) {
+        int offsetA = rowA * dimension;
+        int offsetB = rowB * dimension;
+        if (!offHeap) {
+            return kernel.dot(vectors, offsetA, vectors, offsetB, dimension);
+        }
+        float sum = 0.0f;
+        for (int i = 0; i < dimension; i++) {
+            sum += offHeapVectors.get(offsetA + i) * offHeapVectors.get(offsetB + i);
+        }
+        return sum;
+    }
+
+    /**
+     * Returns a copy of a stored (normalized) row.
+     */
+    public float[] vector(int row) {
+        int offset = row * dimension;
+        if (!offHeap) {
+            return Arrays.copyOfRange(vectors, offset, offset + dimension);
+        }
+        float[] copy = new float[dimension];
+        offHeapVectors.get(offset, copy);
+        return copy;
+    }
+
+    /**
+     * Returns a unit-length copy of the vector, or a zero vector if it has no length.
+     */
+    public static float[] normalize(float[] vector) {
+        float norm = norm(vector);
+        float[] unit = new float[vector.length];
+        if (norm == 0.0f) {
+            return unit;
+        }
+        for (int i = 0; i < vector.length; i++) {
+            unit[i] = vector[i] / norm;
+        }
+        return unit;
+    }
+
+    public static float norm(float[] vector) {
+        float sum = 0.0f;
+        for (float value : vector) {
+            sum += value * value;
+        }
+        return (float) Math.sqrt(sum);
+    }
+
+    /**
+     * The most rows a slab of this dimension can hold: a heap slab is one {@code float[]}, an off-heap slab one direct
+     * buffer whose size in bytes must fit in an {@code int}.
+     */
+    public static int maxRows(int dimension, boolean offHeap) {
+        long maxFloats = offHeap ? Integer.MAX_VALUE / Float.BYTES : MAX_ARRAY_LENGTH;
+        return (int) (maxFloats / dimension);
+    }
+
+    /**
+     * The length to grow a per-row array to so it holds {@code required} elements: at least double the current
+     * length, computed in long so the doubling cannot overflow. Rows are bounded by the slab, so {@code required}
+     * always fits.
+     */
+    static int grownLength(int current, int required) {
+        return (int) Math.max(required, Math.min(MAX_ARRAY_LENGTH, 2L * current));
+    }
+
+    private void ensureCapacity(int rows) {
+        if (rows <= capacity) {
+            return;
+        }
+        int maxRows = maxRows(dimension, offHeap);
+        if (rows > maxRows) {
+            throw new IllegalStateException((offHeap ? "An off-heap" : "A heap") + " vector slab of dimension " + dimension
+                    + " holds at most " + maxRows + " rows (" + ((long) maxRows * dimension * Float.BYTES >> 20)
+                    + " MiB); cannot grow to " + rows + ".");
+        }
+        // Sizes are computed in long: doubling, or multiplying rows by the dimension, can overflow an int
+        capacity = (int) Math.min(maxRows, Math.max(rows, Math.max(INITIAL_CAPACITY, 2L * capacity)));
+        if (offHeap) {
+            FloatBuffer grown = ByteBuffer.allocateDirect(Math.toIntExact((long) capacity * dimension * Float.BYTES))
+                    .order(ByteOrder.nativeOrder())
+                    .asFloatBuffer();
+            grown.put(0, offHeapVectors, 0, size * dimension);
+            offHeapVectors = grown;
+        } else {
+            vectors = Arrays.copyOf(vectors, Math.toIntExact((long) capacity * dimension));
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.cloud.docs.ai.model;
+
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+
+/**
+ * A streamed answer from the AI assistant.
+ *
+ * @param sources The document chunks used as context, known before the first token is generated.
+ * @param tokens  The answer text as it is generated; nothing is requested from the LLM until this is subscribed to.
+ */
+public record AiAnswerStream(List<DocumentChunk> sources, Flux<String> tokens) {}
@@ -1,5 +1,6 @@
 package com.cloud.docs.ai.model;
 
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 
@@ -7,10 +8,21 @@ import jakarta.validation.constraints.Size;
  * Request DTO for an AI assistant query.
  *
  * @param query The user's question.
+ * @param scope Optionally restricts the answer to one API or docs hub; omitted means all documentation.
  */
 public record AiQuery(
     @NotBlank(message = "Query cannot be empty")
     // FIX: Lowered the minimum character count to be more user-friendly.
     @Size(min = 2, max = 500, message = "Query must be between 2 and 500 characters")
-    String query
-) {}
\ No newline at end of file
+    String query,
+    @Valid
+    SearchScope scope
+) {
+
+    /**
+     * The requested scope, or {@link SearchScope#ALL} if none was given.
+     */
+    public SearchScope scopeOrAll() {
+        return scope != null ? scope : SearchScope.ALL;
+    }
+}
@@ -0,0 +1,11 @@
+package com.cloud.docs.ai.model;
+
+/**
+ * Load on the AI assistant's bulkhead.
+ *
+ * @param active               Questions being answered right now.
+ * @param queued               Questions waiting for a free slot.
+ * @param rejectedQueueFull    Questions turned away with 429 because the queue was full.
+ * @param rejectedQueueTimeout Questions turned away with 503 after waiting too long in the queue.
+ */
+public record BulkheadStats(int active, int queued, long rejectedQueueFull, long rejectedQueueTimeout) {}
@@ -0,0 +1,18 @@
+package com.cloud.docs.ai.model;
+
+/**
+ * Counters of an in-memory cache in the assistant's request path.
+ *
+ * @param size       Entries currently cached.
+ * @param maxEntries Capacity before the least recently used entry is evicted.
+ * @param hits       Lookups answered from the cache.
+ * @param misses     Lookups that had to compute the value.
+ * @param evictions  Entries dropped to stay within capacity.
+ */
+public record CacheStats(int size, int maxEntries, long hits, long misses, long evictions) {
+
+    public double hitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0.0 : (double) hits / lookups;
+    }
+}
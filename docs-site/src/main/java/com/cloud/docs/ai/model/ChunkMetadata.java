@@ -0,0 +1,118 @@
+package com.cloud.docs.ai.model;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * The metadata of one chunk as a read-only view: the shared {@link SourceDocument} fields plus the chunk's position
+ * in that document under {@link #CHUNK_INDEX}. A chunk therefore costs one small object here instead of a full copy
+ * of its document's metadata, while callers and the JSON sent to the browser still see an ordinary map.
+ */
+public final class ChunkMetadata extends AbstractMap<String, String> {
+
+    public static final String CHUNK_INDEX = "chunkIndex";
+
+    /**
+     * Marks a chunk whose position in its document is unknown; its metadata then has no {@link #CHUNK_INDEX}.
+     */
+    public static final int NO_INDEX = -1;
+
+    private final SourceDocument source;
+    private final int chunkIndex;
+
+    public ChunkMetadata(SourceDocument source, int chunkIndex) {
+        this.source = Objects.requireNonNull(source);
+        this.chunkIndex = chunkIndex;
+    }
+
+    /**
+     * Splits arbitrary chunk metadata into its document-level fields and its chunk index.
+     */
+    public static ChunkMetadata of(Map<String, String> metadata) {
+        if (metadata instanceof ChunkMetadata chunkMetadata) {
+            return chunkMetadata;
+        }
+        String index = metadata.get(CHUNK_INDEX);
+        if (index == null) {
+            return new ChunkMetadata(new SourceDocument(metadata), NO_INDEX);
+        }
+        Map<String, String> documentFields = new HashMap<>(metadata);
+        documentFields.remove(CHUNK_INDEX);
+        try {
+            return new ChunkMetadata(new SourceDocument(documentFields), Integer.parseInt(index));
+        } catch (NumberFormatException e) {
+            return new ChunkMetadata(new SourceDocument(metadata), NO_INDEX);
+        }
+    }
+
+    public SourceDocument source() {
+        return source;
+    }
+
+    public int chunkIndex() {
+        return chunkIndex;
+    }
+
+    @Override
+    public String get(Object key) {
+        if (hasIndex() && CHUNK_INDEX.equals(key)) {
+            return String.valueOf(chunkIndex);
+        }
+        return source.metadata().get(key);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return (hasIndex() && CHUNK_INDEX.equals(key)) || source.metadata().containsKey(key);
+    }
+
+    @Override
+    public int size() {
+        return source.metadata().size() + (hasIndex() ? 1 : 0);
+    }
+
+    @Override
+    public Set<Entry<String, String>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<String, String>> iterator() {
+                Iterator<Entry<String, String>> fields = source.metadata().entrySet().iterator();
+                return new Iterator<>() {
+                    private boolean indexPending = hasIndex();
+
+                    @Override
+                    public boolean hasNext() {
+                        return fields.hasNext() || indexPending;
+                    }
+
+                    @Override
+                    public Entry<String, String> next() {
+                        if (fields.hasNext()) {
+                            return fields.next();
+                        }
+                        if (!indexPending) {
+                            throw new NoSuchElementException();
+                        }
+                        indexPending = false;
+                        return Map.entry(CHUNK_INDEX, String.valueOf(chunkIndex));
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return ChunkMetadata.this.size();
+            }
+        };
+    }
+
+    private boolean hasIndex() {
+        return chunkIndex != NO_INDEX;
+    }
+}
@@ -0,0 +1,10 @@
+package com.cloud.docs.ai.model;
+
+/**
+ * Counters of the request coalescing in front of the assistant.
+ *
+ * @param executed  Requests that ran the full embed, search and LLM flow.
+ * @param collapsed Requests that arrived while an identical one was running and shared its answer.
+ * @param inFlight  Distinct questions being answered right now.
+ */
+public record CoalescingStats(long executed, long collapsed, int inFlight) {}
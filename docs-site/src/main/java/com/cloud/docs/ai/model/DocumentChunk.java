@@ -1,19 +1,28 @@
 package com.cloud.docs.ai.model;
 
-import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 
 /**
  * Represents a chunk of text from the documentation, along with its embedding and metadata.
  * This is the unit stored in the VectorStore.
+ * <p>
+ * The embedding is only carried on the way into the store. The VectorStore copies it into its own
+ * contiguous slab, so chunks returned from a search have a {@code null} embedding.
  *
  * @param id A unique identifier for the chunk (e.g., hash of content + source).
  * @param content The actual text content of the chunk.
  * @param embedding The numerical vector representation of the content.
  * @param metadata Additional information about the chunk's origin (e.g., title, URL, breadcrumb).
  */
-public record DocumentChunk(String id, String content, List<Double> embedding, Map<String, String> metadata) {
+public record DocumentChunk(String id, String content, float[] embedding, Map<String, String> metadata) {
+
+    /**
+     * Returns a copy of this chunk without its embedding, as kept by the VectorStore.
+     */
+    public DocumentChunk withoutEmbedding() {
+        return embedding == null ? this : new DocumentChunk(id, content, null, metadata);
+    }
 
     @Override
     public boolean equals(Object o) {
@@ -33,8 +42,8 @@ public record DocumentChunk(String id, String content, List<Double> embedding, M
         return "DocumentChunk{" +
                "id='" + id + '\'' +
                ", content='" + content.substring(0, Math.min(content.length(), 50)) + "...'" +
-               ", embedding=" + (embedding != null ? "List(size=" + embedding.size() + ")" : "null") +
+               ", embedding=" + (embedding != null ? "float[" + embedding.length + "]" : "null") +
                ", metadata=" + metadata +
                '}';
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,21 @@
+package com.cloud.docs.ai.model;
+
+import com.cloud.docs.ai.index.IndexEvaluation;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Recall, latency and memory of every evaluated index variant, as returned by the admin endpoint and written to
+ * {@code docs.ai.evaluation.output-file}.
+ *
+ * @param generatedAt  When the evaluation finished.
+ * @param chunks       The number of vectors in the store.
+ * @param dimension    The dimension of the stored vectors.
+ * @param kernel       The similarity kernel used for every variant.
+ * @param querySource  {@code configured} for the fixed query set, {@code sampled} for stored chunks used as queries.
+ * @param indexes      One entry per evaluated index type.
+ */
+public record EvaluationReport(Instant generatedAt, int chunks, int dimension, String kernel, String querySource,
+                               List<IndexEvaluation> indexes) {
+}
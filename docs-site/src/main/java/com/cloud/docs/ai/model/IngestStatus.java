@@ -0,0 +1,37 @@
+package com.cloud.docs.ai.model;
+
+import java.time.Instant;
+
+/**
+ * Progress of the background pipeline that loads documentation into the vector store.
+ *
+ * @param state          Where the pipeline is: {@code WARMING} while ingesting, then {@code READY} or {@code FAILED}.
+ * @param sourcesTotal   Number of API specifications and docs hubs to ingest.
+ * @param sourcesDone    Number of those sources that have been chunked, embedded and loaded.
+ * @param sourcesFailed  Number of sources that could not be ingested; the assistant answers without them.
+ * @param chunksIndexed  Number of chunks loaded so far while ingesting, otherwise the number in the vector store.
+ * @param chunksReused   Chunks carried over from the previous index by the latest ingest, without embedding calls.
+ * @param chunksAdded    Chunks the latest ingest had to embed because they were new or had changed.
+ * @param startedAt      When the current ingest started, or {@code null} if it has not started yet.
+ * @param elapsedMillis  Time spent so far, or the total time once the ingest has finished.
+ * @param error          The failure message when {@code state} is {@code FAILED}.
+ */
+public record IngestStatus(
+        State state,
+        int sourcesTotal,
+        int sourcesDone,
+        int sourcesFailed,
+        int chunksIndexed,
+        int chunksReused,
+        int chunksAdded,
+        Instant startedAt,
+        long elapsedMillis,
+        String error
+) {
+
+    public enum State { WARMING, READY, FAILED }
+
+    public boolean isReady() {
+        return state == State.READY;
+    }
+}
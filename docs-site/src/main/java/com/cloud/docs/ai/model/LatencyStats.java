@@ -0,0 +1,14 @@
+package com.cloud.docs.ai.model;
+
+/**
+ * Latency distribution of one stage of the assistant's request path, over its most recent samples.
+ *
+ * @param count      Samples recorded since the last reset (percentiles cover at most the latest window of them).
+ * @param meanMillis Mean over all samples since the last reset.
+ * @param p50Millis  Median of the window.
+ * @param p95Millis  95th percentile of the window.
+ * @param p99Millis  99th percentile of the window.
+ * @param maxMillis  Slowest sample in the window.
+ */
+public record LatencyStats(long count, double meanMillis, double p50Millis, double p95Millis, double p99Millis,
+                           double maxMillis) {}
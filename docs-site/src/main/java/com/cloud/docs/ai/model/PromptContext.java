@@ -0,0 +1,12 @@
+package com.cloud.docs.ai.model;
+
+import java.util.List;
+
+/**
+ * The context handed to the LLM for one question.
+ *
+ * @param chunks          The chunks the context was built from, most relevant first. These are the answer's sources.
+ * @param text            The assembled context text.
+ * @param estimatedTokens The estimated token count of {@code text}.
+ */
+public record PromptContext(List<DocumentChunk> chunks, String text, int estimatedTokens) {}
@@ -0,0 +1,59 @@
+package com.cloud.docs.ai.model;
+
+import jakarta.validation.constraints.Size;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Restricts retrieval to part of the documentation, matched against {@link DocumentChunk#metadata()}.
+ * Every field that is set must match; unset (null or blank) fields match everything, so {@link #ALL}
+ * searches the whole store.
+ *
+ * @param type    The chunk type, e.g. {@code api-operation} or {@code markdown-article}.
+ * @param apiId   Only chunks from this API specification.
+ * @param hubName Only chunks from this docs hub.
+ */
+public record SearchScope(
+    @Size(max = 100) String type,
+    @Size(max = 100) String apiId,
+    @Size(max = 100) String hubName
+) {
+
+    /**
+     * The metadata keys a scope can filter on. The VectorStore keeps a partition for every value of each of them.
+     */
+    public static final List<String> FIELDS = List.of("type", "apiId", "hubName");
+
+    public static final SearchScope ALL = new SearchScope(null, null, null);
+
+    public static SearchScope api(String apiId) {
+        return new SearchScope(null, apiId, null);
+    }
+
+    public static SearchScope hub(String hubName) {
+        return new SearchScope(null, null, hubName);
+    }
+
+    /**
+     * Returns the metadata key and required value of every field that is set, in {@link #FIELDS} order.
+     */
+    public Map<String, String> filters() {
+        Map<String, String> filters = new LinkedHashMap<>();
+        put(filters, "type", type);
+        put(filters, "apiId", apiId);
+        put(filters, "hubName", hubName);
+        return filters;
+    }
+
+    public boolean isAll() {
+        return filters().isEmpty();
+    }
+
+    private static void put(Map<String, String> filters, String key, String value) {
+        if (value != null && !value.isBlank()) {
+            filters.put(key, value.strip());
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.cloud.docs.ai.model;
+
+import java.util.Map;
+
+/**
+ * The document a chunk was cut from, such as one article or one API operation. All chunks of a document share a
+ * single instance, so its title, URL, breadcrumb and scope fields are held once rather than once per chunk.
+ *
+ * @param metadata The document-level metadata (e.g., title, url, breadcrumb, type, apiId or hubName).
+ */
+public record SourceDocument(Map<String, String> metadata) {
+
+    public SourceDocument {
+        metadata = Map.copyOf(metadata);
+    }
+}
@@ -0,0 +1,121 @@
+package com.cloud.docs.ai.offline;
+
+import com.cloud.docs.search.TextTokenizer;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.Embedding;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An in-process, deterministic {@link EmbeddingModel} based on feature hashing, for running the assistant without
+ * Vertex AI.
+ * <p>
+ * Every term from {@link TextTokenizer} and every character trigram of it is hashed to one of {@code dimensions}
+ * buckets with a hashed sign, weighted by log term frequency, and the result is L2-normalized. Texts sharing words
+ * (or word stems, through the trigrams) get similar vectors, which is enough to exercise retrieval realistically;
+ * it does not understand synonyms. The same text always yields the same vector, across runs and machines.
+ */
+public class HashingEmbeddingModel implements EmbeddingModel {
+
+    private static final float TRIGRAM_WEIGHT = 0.5f;
+
+    private final int dimensions;
+    private final Duration latency;
+
+    public HashingEmbeddingModel(int dimensions, Duration latency) {
+        this.dimensions = dimensions;
+        this.latency = latency;
+    }
+
+    @Override
+    public EmbeddingResponse call(EmbeddingRequest request) {
+        List<float[]> vectors = embed(request.getInstructions());
+        List<Embedding> embeddings = new ArrayList<>(vectors.size());
+        for (int i = 0; i < vectors.size(); i++) {
+            embeddings.add(new Embedding(vectors.get(i), i));
+        }
+        return new EmbeddingResponse(embeddings);
+    }
+
+    @Override
+    public float[] embed(Document document) {
+        return embed(document.getText());
+    }
+
+    @Override
+    public float[] embed(String text) {
+        return embed(List.of(text)).get(0);
+    }
+
+    /**
+     * One call, so the configured latency is paid once per batch, as with a remote endpoint.
+     */
+    @Override
+    public List<float[]> embed(List<String> texts) {
+        OfflineLatency.pause(latency);
+        List<float[]> vectors = new ArrayList<>(texts.size());
+        for (String text : texts) {
+            vectors.add(vector(text));
+        }
+        return vectors;
+    }
+
+    @Override
+    public int dimensions() {
+        return dimensions;
+    }
+
+    private float[] vector(String text) {
+        float[] vector = new float[dimensions];
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String term : TextTokenizer.tokenize(text)) {
+            frequencies.merge(term, 1, Integer::sum);
+        }
+        frequencies.forEach((term, tf) -> {
+            float weight = 1.0f + (float) Math.log(tf);
+            add(vector, term, weight);
+            for (int i = 0; i + 3 <= term.length() && term.length() > 3; i++) {
+                add(vector, "#" + term.substring(i, i + 3), weight * TRIGRAM_WEIGHT);
+            }
+        });
+
+        double norm = 0.0;
+        for (float value : vector) {
+            norm += value * value;
+        }
+        if (norm == 0.0) {
+            vector[0] = 1.0f; // No terms at all; any fixed unit vector will do
+            return vector;
+        }
+        float scale = (float) (1.0 / Math.sqrt(norm));
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] *= scale;
+        }
+        return vector;
+    }
+
+    private void add(float[] vector, String feature, float weight) {
+        int hash = mix(feature.hashCode());
+        int bucket = Math.floorMod(hash, dimensions);
+        vector[bucket] += (mix(hash) & 1) == 0 ? weight : -weight;
+    }
+
+    /**
+     * The murmur3 finalizer, to spread {@link String#hashCode()} over all bits.
+     */
+    private static int mix(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        hash ^= hash >>> 16;
+        return hash;
+    }
+}
@@ -0,0 +1,33 @@
+package com.cloud.docs.ai.offline;
+
+import com.cloud.docs.ai.config.AiProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Replaces the Vertex AI models with in-process stand-ins when the {@code offline} profile is active, so the
+ * whole assistant (ingest, retrieval, caching, bulkhead, streaming) runs without credentials or network access.
+ * {@code application-offline.properties} switches the Vertex auto-configuration off.
+ */
+@Configuration
+@Profile("offline")
+@Slf4j
+public class OfflineAiConfig {
+
+    @Bean
+    public EmbeddingModel embeddingModel(AiProperties properties) {
+        int dimensions = properties.getEmbedding().getDimensions();
+        log.info("AI Assistant: Using the offline hashing embedding model with {} dimensions.", dimensions);
+        return new HashingEmbeddingModel(dimensions, properties.getOffline().getEmbeddingLatency());
+    }
+
+    @Bean
+    public ChatModel chatModel(AiProperties properties) {
+        log.info("AI Assistant: Using the offline stub chat model.");
+        return new StubChatModel(properties.getOffline());
+    }
+}
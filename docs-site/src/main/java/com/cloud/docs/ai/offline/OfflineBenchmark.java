@@ -0,0 +1,123 @@
+package com.cloud.docs.ai.offline;
+
+import com.cloud.docs.ai.config.AiProperties;
+import com.cloud.docs.ai.model.LatencyStats;
+import com.cloud.docs.ai.model.SearchScope;
+import com.cloud.docs.ai.service.AiAssistantService;
+import com.cloud.docs.ai.service.AiOverloadedException;
+import com.cloud.docs.ai.service.DocumentIngestService;
+import com.cloud.docs.ai.service.StageLatencyRecorder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drives {@link AiAssistantService#askQuestion} against the offline models and logs per-stage latency.
+ * <p>
+ * Enabled with {@code docs.ai.offline.benchmark.enabled=true} under the {@code offline} profile. Once the first
+ * ingest has been published it asks {@code requests} questions with {@code concurrency} in flight, then logs
+ * throughput, end-to-end percentiles, rejections, and the {@link StageLatencyRecorder} breakdown into embed,
+ * search, assemble and generate. The stage stats stay available at {@code /api/ai/admin/latency-stats}.
+ */
+@Component
+@Profile("offline")
+@ConditionalOnProperty(prefix = "docs.ai.offline.benchmark", name = "enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class OfflineBenchmark {
+
+    private static final long READY_POLL_MILLIS = 200L;
+
+    private final AiAssistantService aiAssistantService;
+    private final DocumentIngestService documentIngestService;
+    private final StageLatencyRecorder latencyRecorder;
+    private final AiProperties properties;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startBenchmark() {
+        Thread.ofVirtual().name("docs-ai-benchmark").start(this::run);
+    }
+
+    private void run() {
+        AiProperties.Benchmark config = properties.getOffline().getBenchmark();
+        try {
+            while (!documentIngestService.isReady()) {
+                Thread.sleep(READY_POLL_MILLIS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        int requests = Math.max(1, config.getRequests());
+        int concurrency = Math.max(1, config.getConcurrency());
+        List<String> questions = config.getQuestions().isEmpty() ? List.of("How do I get started?") : config.getQuestions();
+        log.info("AI Assistant benchmark: asking {} questions with {} in flight against {} indexed chunks.",
+                requests, concurrency, documentIngestService.getStatus().chunksIndexed());
+
+        latencyRecorder.reset();
+        Semaphore inFlight = new Semaphore(concurrency);
+        long[] latencies = new long[requests];
+        AtomicLong rejected = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        List<CompletableFuture<?>> pending = new ArrayList<>(requests);
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            int request = i;
+            String question = questions.get(i % questions.size()) + " (" + i + ")";
+            inFlight.acquireUninterruptibly();
+            long requestStart = System.nanoTime();
+            CompletableFuture<?> answer;
+            try {
+                answer = aiAssistantService.askQuestion(question, SearchScope.ALL);
+            } catch (AiOverloadedException e) {
+                answer = CompletableFuture.failedFuture(e);
+            }
+            pending.add(answer.whenComplete((response, error) -> {
+                latencies[request] = System.nanoTime() - requestStart;
+                if (error instanceof AiOverloadedException || (error != null && error.getCause() instanceof AiOverloadedException)) {
+                    rejected.incrementAndGet();
+                } else if (error != null) {
+                    failed.incrementAndGet();
+                }
+                inFlight.release();
+            }));
+        }
+        CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new)).exceptionally(error -> null).join();
+        long elapsedNanos = System.nanoTime() - start;
+
+        Arrays.sort(latencies);
+        log.info("AI Assistant benchmark: {} questions in {}ms ({} per second), {} rejected, {} failed. "
+                        + "End-to-end p50={}ms p95={}ms p99={}ms max={}ms.",
+                requests, elapsedNanos / 1_000_000, String.format("%.1f", requests / (elapsedNanos / 1e9)),
+                rejected.get(), failed.get(), millis(latencies, 0.50), millis(latencies, 0.95), millis(latencies, 0.99),
+                millis(latencies, 1.0));
+        for (Map.Entry<StageLatencyRecorder.Stage, LatencyStats> stage : latencyRecorder.stats().entrySet()) {
+            LatencyStats stats = stage.getValue();
+            log.info("AI Assistant benchmark: {} n={} mean={}ms p50={}ms p95={}ms p99={}ms max={}ms",
+                    String.format("%-8s", stage.getKey()), stats.count(), format(stats.meanMillis()),
+                    format(stats.p50Millis()), format(stats.p95Millis()), format(stats.p99Millis()), format(stats.maxMillis()));
+        }
+    }
+
+    private static String millis(long[] sortedNanos, double quantile) {
+        int index = (int) Math.min(sortedNanos.length - 1, Math.max(0, Math.ceil(quantile * sortedNanos.length) - 1));
+        return format(sortedNanos[index] / 1_000_000.0);
+    }
+
+    private static String format(double millis) {
+        return String.format("%.2f", millis);
+    }
+}
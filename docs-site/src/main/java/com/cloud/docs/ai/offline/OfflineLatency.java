@@ -0,0 +1,23 @@
+package com.cloud.docs.ai.offline;
+
+import java.time.Duration;
+
+/**
+ * Simulated remote-call latency for the offline stand-ins.
+ */
+final class OfflineLatency {
+
+    private OfflineLatency() {
+    }
+
+    static void pause(Duration duration) {
+        if (duration.isZero() || duration.isNegative()) {
+            return;
+        }
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.cloud.docs.ai.offline;
+
+import com.cloud.docs.ai.config.AiProperties;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An in-process {@link ChatModel} that answers instantly in content and slowly in time, for load tests and profiling
+ * without Vertex AI.
+ * <p>
+ * The answer is the first {@code docs.ai.offline.answer-tokens} words of the user message, so it is deterministic and
+ * drawn from the retrieved context. The call takes {@code chat-base-latency}, plus {@code input-token-latency} per
+ * prompt token, plus {@code output-token-latency} per answer word; a stream emits its first word after the
+ * prompt-dependent part and the rest one per {@code output-token-latency}. Prompt tokens are estimated at four
+ * characters each, the same estimate the context assembler budgets with.
+ */
+public class StubChatModel implements ChatModel {
+
+    private static final int CHARS_PER_TOKEN = 4;
+
+    private final AiProperties.Offline config;
+
+    public StubChatModel(AiProperties.Offline config) {
+        this.config = config;
+    }
+
+    @Override
+    public ChatResponse call(Prompt prompt) {
+        List<String> words = answerWords(prompt);
+        OfflineLatency.pause(promptLatency(prompt).plus(config.getOutputTokenLatency().multipliedBy(words.size())));
+        return response(String.join(" ", words));
+    }
+
+    @Override
+    public Flux<ChatResponse> stream(Prompt prompt) {
+        List<String> words = answerWords(prompt);
+        List<String> tokens = new ArrayList<>(words.size());
+        for (int i = 0; i < words.size(); i++) {
+            tokens.add(i == 0 ? words.get(i) : " " + words.get(i));
+        }
+        Duration promptLatency = promptLatency(prompt);
+        return Flux.defer(() -> {
+                    OfflineLatency.pause(promptLatency);
+                    return Flux.fromIterable(tokens);
+                })
+                .delayElements(config.getOutputTokenLatency())
+                .map(StubChatModel::response);
+    }
+
+    private Duration promptLatency(Prompt prompt) {
+        long promptTokens = (prompt.getContents().length() + CHARS_PER_TOKEN - 1) / CHARS_PER_TOKEN;
+        return config.getChatBaseLatency().plus(config.getInputTokenLatency().multipliedBy(promptTokens));
+    }
+
+    private List<String> answerWords(Prompt prompt) {
+        List<Message> messages = prompt.getInstructions();
+        String userText = messages.isEmpty() ? "" : messages.get(messages.size() - 1).getText();
+        List<String> words = new ArrayList<>();
+        words.add("[offline]");
+        for (String word : userText.split("\\s+")) {
+            if (words.size() >= Math.max(1, config.getAnswerTokens())) {
+                break;
+            }
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    private static ChatResponse response(String text) {
+        return new ChatResponse(List.of(new Generation(new AssistantMessage(text))));
+    }
+}
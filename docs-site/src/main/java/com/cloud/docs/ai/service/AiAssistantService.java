@@ -1,14 +1,21 @@
 package com.cloud.docs.ai.service;
 
+import com.cloud.docs.ai.config.AiProperties;
+import com.cloud.docs.ai.model.AiAnswerStream;
 import com.cloud.docs.ai.model.AiResponse;
+import com.cloud.docs.ai.model.CoalescingStats;
 import com.cloud.docs.ai.model.DocumentChunk;
+import com.cloud.docs.ai.model.PromptContext;
+import com.cloud.docs.ai.model.SearchScope;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Core service for the AI Assistant. Handles the RAG (Retrieval-Augmented Generation) flow.
@@ -19,10 +26,18 @@ import java.util.stream.Collectors;
 public class AiAssistantService {
 
     private final EmbeddingService embeddingService;
+    private final QueryEmbeddingCache queryEmbeddingCache;
+    private final SemanticAnswerCache semanticAnswerCache;
     private final VectorStore vectorStore;
+    private final ContextAssembler contextAssembler;
+    private final AiProperties aiProperties;
     private final ChatClient.Builder chatClientBuilder;
+    private final AiBulkhead aiBulkhead;
+    private final StageLatencyRecorder latencyRecorder;
 
-    private static final int NUM_CONTEXT_CHUNKS = 5;
+    private final SingleFlight<QuestionKey, AiResponse> inFlightQuestions = new SingleFlight<>();
+
+    private static final String NOT_FOUND_ANSWER = "I'm sorry, but I couldn't find information about that in the documentation.";
 
     private static final String SYSTEM_PROMPT_TEMPLATE = """
             You are an expert AI assistant for the noqodiDocs documentation.
@@ -31,38 +46,147 @@ public class AiAssistantService {
             Be concise and helpful.
             """;
 
-    public AiResponse askQuestion(String userQuery) {
-        log.info("Received AI query: {}", userQuery);
+    /**
+     * Answers a question on the {@link AiBulkhead}'s executor. Concurrent requests for the same normalized question
+     * and scope share one embed, search and LLM call, and take a single bulkhead slot between them.
+     * If the bulkhead sheds the question, the future fails with {@link AiOverloadedException}.
+     *
+     * @param scope Restricts retrieval to one API or docs hub; {@link SearchScope#ALL} searches everything.
+     */
+    public CompletableFuture<AiResponse> askQuestion(String userQuery, SearchScope scope) {
+        log.info("Received AI query: {} (scope {})", userQuery, scope.filters());
+        QuestionKey key = new QuestionKey(QueryEmbeddingCache.normalize(userQuery), scope.filters());
+        return inFlightQuestions.execute(key, () -> aiBulkhead.submit(() -> answerQuestion(userQuery, scope)));
+    }
 
-        // 1. Embed the user's query to get a List<Double>
-        List<Double> queryEmbedding = embeddingService.embed(userQuery);
+    public CoalescingStats getCoalescingStats() {
+        return inFlightQuestions.stats();
+    }
 
-        // 2. Retrieve relevant document chunks from the vector store (no conversion needed)
-        List<DocumentChunk> relevantChunks = vectorStore.search(queryEmbedding, NUM_CONTEXT_CHUNKS);
+    /**
+     * Same flow as {@link #askQuestion(String, SearchScope)}, but the answer is streamed from the LLM as it is generated.
+     * Retrieval runs before this method returns, so the sources are available immediately; the token stream
+     * only starts calling the LLM when it is subscribed to. Complete answers are added to the answer cache.
+     */
+    public AiAnswerStream streamQuestion(String userQuery, SearchScope scope) {
+        log.info("Received streaming AI query: {} (scope {})", userQuery, scope.filters());
 
-        if (relevantChunks.isEmpty()) {
+        Retrieval retrieval = retrieve(userQuery, scope);
+        if (retrieval.chunks().isEmpty()) {
             log.warn("No relevant chunks found for query: {}", userQuery);
-            return new AiResponse("I'm sorry, but I couldn't find information about that in the documentation.", List.of());
+            return new AiAnswerStream(List.of(), Flux.just(NOT_FOUND_ANSWER));
+        }
+
+        AiResponse cachedResponse = cachedAnswer(userQuery, retrieval);
+        if (cachedResponse != null) {
+            return new AiAnswerStream(cachedResponse.sources(), Flux.just(cachedResponse.answer()));
+        }
+
+        StringBuilder answer = new StringBuilder();
+        long[] generateStart = new long[1];
+        Flux<String> tokens = prompt(userQuery, retrieval.context())
+                .stream()
+                .content()
+                .doOnSubscribe(subscription -> generateStart[0] = System.nanoTime())
+                .doOnNext(answer::append)
+                .doOnComplete(() -> {
+                    latencyRecorder.record(StageLatencyRecorder.Stage.GENERATE, System.nanoTime() - generateStart[0]);
+                    log.info("Streamed AI answer for query: '{}'", userQuery);
+                    semanticAnswerCache.put(retrieval.queryEmbedding(), retrieval.chunks(), retrieval.storeVersion(),
+                            new AiResponse(answer.toString(), retrieval.chunks()));
+                });
+        return new AiAnswerStream(retrieval.chunks(), tokens);
+    }
+
+    private AiResponse answerQuestion(String userQuery, SearchScope scope) {
+        // 1-3. Embed the query, retrieve the relevant chunks and assemble the context
+        Retrieval retrieval = retrieve(userQuery, scope);
+        if (retrieval.chunks().isEmpty()) {
+            log.warn("No relevant chunks found for query: {}", userQuery);
+            return new AiResponse(NOT_FOUND_ANSWER, List.of());
+        }
+
+        // A paraphrase of an earlier question that retrieved the same context gets the same answer, without the LLM
+        AiResponse cachedResponse = cachedAnswer(userQuery, retrieval);
+        if (cachedResponse != null) {
+            return cachedResponse;
+        }
+
+        // 4. Ask the LLM
+        String llmAnswer = latencyRecorder.time(StageLatencyRecorder.Stage.GENERATE,
+                () -> prompt(userQuery, retrieval.context()).call().content());
+
+        log.info("Generated AI answer for query: '{}'", userQuery);
+        AiResponse response = new AiResponse(llmAnswer, retrieval.chunks());
+        semanticAnswerCache.put(retrieval.queryEmbedding(), retrieval.chunks(), retrieval.storeVersion(), response);
+        return response;
+    }
+
+    private Retrieval retrieve(String userQuery, SearchScope scope) {
+        // 1. Embed the user's query, reusing the vector of a recently asked identical question
+        float[] queryEmbedding = embedQuery(userQuery);
+
+        // 2. Retrieve relevant document chunks within the scope: keyword and vector results fused
+        //    (keyword only without an embedding)
+        long storeVersion = vectorStore.version();
+        List<DocumentChunk> candidates = latencyRecorder.time(StageLatencyRecorder.Stage.SEARCH,
+                () -> vectorStore.hybridSearch(userQuery, queryEmbedding, aiProperties.getContext().getCandidates(), scope));
+
+        // 3. Pick, merge and pack the chunks the LLM will see
+        PromptContext context = latencyRecorder.time(StageLatencyRecorder.Stage.ASSEMBLE,
+                () -> contextAssembler.assemble(candidates));
+        return new Retrieval(queryEmbedding, storeVersion, context);
+    }
+
+    /**
+     * @return The query's embedding, or {@code null} if it could not be embedded.
+     */
+    private float[] embedQuery(String userQuery) {
+        try {
+            return latencyRecorder.time(StageLatencyRecorder.Stage.EMBED,
+                    () -> queryEmbeddingCache.get(userQuery, embeddingService::embed));
+        } catch (RuntimeException e) {
+            log.warn("Could not embed the query; falling back to keyword retrieval. Cause: {}", e.getMessage());
+            return null;
         }
+    }
 
-        // 3. Construct the prompt for the LLM
-        String context = relevantChunks.stream()
-                .map(DocumentChunk::content)
-                .collect(Collectors.joining("\n\n---\n\n"));
+    private AiResponse cachedAnswer(String userQuery, Retrieval retrieval) {
+        AiResponse cachedResponse = semanticAnswerCache.get(retrieval.queryEmbedding(), retrieval.chunks(), retrieval.storeVersion());
+        if (cachedResponse != null) {
+            log.info("Answered AI query from the answer cache: '{}'", userQuery);
+        }
+        return cachedResponse;
+    }
 
+    private ChatClient.ChatClientRequestSpec prompt(String userQuery, PromptContext context) {
+        // 4. Construct the prompt for the LLM
         ChatClient chatClient = chatClientBuilder.build();
 
-        String llmAnswer = chatClient.prompt()
+        return chatClient.prompt()
                 .system(SYSTEM_PROMPT_TEMPLATE)
                 .user(user -> user
                         .text("CONTEXT: \n{context}\n\nUSER QUESTION: {query}")
-                        .param("context", context)
+                        .param("context", context.text())
                         .param("query", userQuery)
-                )
-                .call()
-                .content();
+                );
+    }
 
-        log.info("Generated AI answer for query: '{}'", userQuery);
-        return new AiResponse(llmAnswer, relevantChunks);
+    /**
+     * @param queryEmbedding {@code null} when the query could not be embedded and retrieval was keyword-only.
+     */
+    private record Retrieval(float[] queryEmbedding, long storeVersion, PromptContext context) {
+
+        /**
+         * The chunks in the prompt context, which are also the answer's sources.
+         */
+        List<DocumentChunk> chunks() {
+            return context.chunks();
+        }
     }
-}
\ No newline at end of file
+
+    /**
+     * Identifies questions that can share one answer: the same normalized text asked within the same scope.
+     */
+    private record QuestionKey(String normalizedQuery, Map<String, String> scopeFilters) {}
+}
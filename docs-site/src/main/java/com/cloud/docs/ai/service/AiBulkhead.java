@@ -0,0 +1,111 @@
+package com.cloud.docs.ai.service;
+
+import com.cloud.docs.ai.config.AiProperties;
+import com.cloud.docs.ai.model.BulkheadStats;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Admission control for the AI assistant: a bulkhead that keeps LLM traffic off the servlet threads that serve
+ * the docs and the API explorer.
+ * <p>
+ * Questions run on a dedicated executor with {@code docs.ai.bulkhead.max-concurrent} threads, so at most that many
+ * embed/search/LLM flows are in progress. Further questions wait in a bounded queue; when the queue is full they
+ * are rejected immediately, and when one has waited longer than {@code queue-timeout} it is removed and rejected.
+ * Both rejections surface as {@link AiOverloadedException}, which the controller turns into 429 or 503 with
+ * Retry-After. Callers get a {@link CompletableFuture}, so the request thread is released while the answer is
+ * being produced.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AiBulkhead {
+
+    private final AiProperties properties;
+
+    private final AtomicLong rejectedQueueFull = new AtomicLong();
+    private final AtomicLong rejectedQueueTimeout = new AtomicLong();
+    private ThreadPoolExecutor executor;
+    private ScheduledThreadPoolExecutor queueTimeouts;
+
+    @PostConstruct
+    public void startExecutor() {
+        AiProperties.Bulkhead config = properties.getBulkhead();
+        int threads = Math.max(1, config.getMaxConcurrent());
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, config.getQueueCapacity())),
+                Thread.ofVirtual().name("ai-assistant-", 0).factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+        // Every question schedules a queue timeout that is cancelled once it completes; drop cancelled ones at once
+        queueTimeouts = new ScheduledThreadPoolExecutor(1, Thread.ofPlatform().name("ai-assistant-queue-timeout").daemon().factory());
+        queueTimeouts.setRemoveOnCancelPolicy(true);
+        log.info("AI assistant bulkhead allows {} concurrent questions and {} queued.", threads, config.getQueueCapacity());
+    }
+
+    @PreDestroy
+    public void stopExecutor() {
+        executor.shutdownNow();
+        queueTimeouts.shutdownNow();
+    }
+
+    /**
+     * Runs the work on the assistant's executor.
+     *
+     * @throws AiOverloadedException with {@link AiOverloadedException.Reason#QUEUE_FULL} if it cannot even be queued.
+     *                               A queue timeout completes the returned future with the same exception instead.
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> work) {
+        AiProperties.Bulkhead config = properties.getBulkhead();
+        CompletableFuture<T> result = new CompletableFuture<>();
+        AtomicBoolean claimed = new AtomicBoolean();
+        Runnable task = () -> {
+            if (!claimed.compareAndSet(false, true)) {
+                return; // Already timed out in the queue
+            }
+            try {
+                result.complete(work.get());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        };
+
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            rejectedQueueFull.incrementAndGet();
+            log.warn("AI assistant bulkhead is full ({} running, {} queued); rejecting a question.",
+                    executor.getActiveCount(), executor.getQueue().size());
+            throw new AiOverloadedException(AiOverloadedException.Reason.QUEUE_FULL, config.getRetryAfter());
+        }
+
+        ScheduledFuture<?> timeout = queueTimeouts.schedule(() -> {
+            if (claimed.compareAndSet(false, true)) {
+                executor.remove(task);
+                rejectedQueueTimeout.incrementAndGet();
+                log.warn("A question waited more than {} for the AI assistant; rejecting it.", config.getQueueTimeout());
+                result.completeExceptionally(new AiOverloadedException(AiOverloadedException.Reason.QUEUE_TIMEOUT, config.getRetryAfter()));
+            }
+        }, config.getQueueTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        result.whenComplete((answer, error) -> timeout.cancel(false));
+        return result;
+    }
+
+    public BulkheadStats stats() {
+        return new BulkheadStats(executor.getActiveCount(), executor.getQueue().size(),
+                rejectedQueueFull.get(), rejectedQueueTimeout.get());
+    }
+}
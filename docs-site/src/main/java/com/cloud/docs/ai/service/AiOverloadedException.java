@@ -0,0 +1,30 @@
+package com.cloud.docs.ai.service;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * Thrown when the assistant sheds a request because its bulkhead is saturated.
+ */
+@Getter
+public class AiOverloadedException extends RuntimeException {
+
+    public enum Reason {
+        /** Every slot and every queue position was taken when the request arrived. */
+        QUEUE_FULL,
+        /** The request waited in the queue for longer than the configured timeout. */
+        QUEUE_TIMEOUT
+    }
+
+    private final Reason reason;
+    private final Duration retryAfter;
+
+    public AiOverloadedException(Reason reason, Duration retryAfter) {
+        super(reason == Reason.QUEUE_FULL
+                ? "The AI assistant is handling too many questions right now."
+                : "The AI assistant could not start on the question in time.");
+        this.reason = reason;
+        this.retryAfter = retryAfter;
+    }
+}
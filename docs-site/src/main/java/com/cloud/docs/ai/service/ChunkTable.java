@@ -0,0 +1,124 @@
+package com.cloud.docs.ai.service;
+
+import com.cloud.docs.ai.model.ChunkMetadata;
+import com.cloud.docs.ai.model.DocumentChunk;
+import com.cloud.docs.ai.model.SourceDocument;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The text and metadata of the chunks in a {@link VectorStore} snapshot, stored by column.
+ * <p>
+ * Each row holds its chunk ID, its content, the int ID of its {@link SourceDocument} and its position in that
+ * document. Source documents are kept once in a shared table, and their metadata values are interned across
+ * sources, so a breadcrumb, API ID or hub name repeated by hundreds of documents is one string. Chunks are only
+ * materialized as {@link DocumentChunk}s when a search returns them.
+ */
+final class ChunkTable {
+
+    static final ChunkTable EMPTY = new Builder().build();
+
+    private final String[] ids;
+    private final String[] contents;
+    private final int[] sourceIds;
+    private final int[] chunkIndexes;
+    private final SourceDocument[] sources;
+
+    private ChunkTable(String[] ids, String[] contents, int[] sourceIds, int[] chunkIndexes, SourceDocument[] sources) {
+        this.ids = ids;
+        this.contents = contents;
+        this.sourceIds = sourceIds;
+        this.chunkIndexes = chunkIndexes;
+        this.sources = sources;
+    }
+
+    int size() {
+        return ids.length;
+    }
+
+    int sourceCount() {
+        return sources.length;
+    }
+
+    String id(int row) {
+        return ids[row];
+    }
+
+    SourceDocument source(int row) {
+        return sources[sourceIds[row]];
+    }
+
+    /**
+     * The chunk stored at the row, without its embedding.
+     */
+    DocumentChunk chunk(int row) {
+        return new DocumentChunk(ids[row], contents[row], null, new ChunkMetadata(source(row), chunkIndexes[row]));
+    }
+
+    /**
+     * Collects rows in order and produces the immutable table. Not thread-safe.
+     */
+    static final class Builder {
+
+        private final Map<SourceDocument, Integer> sourceIds = new HashMap<>();
+        private final List<SourceDocument> sources = new ArrayList<>();
+        private final Map<String, String> strings = new HashMap<>();
+        private String[] ids = new String[16];
+        private String[] contents = new String[16];
+        private int[] rowSources = new int[16];
+        private int[] chunkIndexes = new int[16];
+        private int size;
+
+        /**
+         * Appends the chunk as the next row and returns that row.
+         */
+        int add(DocumentChunk chunk) {
+            ChunkMetadata metadata = ChunkMetadata.of(chunk.metadata());
+            if (size == ids.length) {
+                int capacity = size * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                contents = Arrays.copyOf(contents, capacity);
+                rowSources = Arrays.copyOf(rowSources, capacity);
+                chunkIndexes = Arrays.copyOf(chunkIndexes, capacity);
+            }
+            ids[size] = chunk.id();
+            contents[size] = chunk.content();
+            rowSources[size] = sourceId(metadata.source());
+            chunkIndexes[size] = metadata.chunkIndex();
+            return size++;
+        }
+
+        int size() {
+            return size;
+        }
+
+        ChunkTable build() {
+            return new ChunkTable(Arrays.copyOf(ids, size), Arrays.copyOf(contents, size),
+                    Arrays.copyOf(rowSources, size), Arrays.copyOf(chunkIndexes, size),
+                    sources.toArray(SourceDocument[]::new));
+        }
+
+        private int sourceId(SourceDocument source) {
+            Integer id = sourceIds.get(source);
+            if (id != null) {
+                return id;
+            }
+            Map<String, String> interned = new LinkedHashMap<>();
+            source.metadata().forEach((key, value) -> interned.put(intern(key), intern(value)));
+            id = sources.size();
+            sources.add(new SourceDocument(interned));
+            sourceIds.put(source, id);
+            return id;
+        }
+
+        private String intern(String value) {
+            String existing = strings.putIfAbsent(value, value);
+            return existing != null ? existing : value;
+        }
+    }
+}
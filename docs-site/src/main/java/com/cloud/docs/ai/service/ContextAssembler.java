@@ -0,0 +1,173 @@
+package com.cloud.docs.ai.service;
+
+import com.cloud.docs.ai.config.AiProperties;
+import com.cloud.docs.ai.model.ChunkMetadata;
+import com.cloud.docs.ai.model.DocumentChunk;
+import com.cloud.docs.ai.model.PromptContext;
+import com.cloud.docs.search.TextTokenizer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Turns retrieved chunks into the context of an LLM prompt, spending as few input tokens as the answer allows.
+ * <p>
+ * Three steps:
+ * <ol>
+ *     <li>Selection with maximal marginal relevance: candidates are taken in order of
+ *     {@code lambda * relevance - (1 - lambda) * redundancy}, where relevance comes from the retrieval rank and
+ *     redundancy is the highest term overlap (Jaccard) with a chunk already selected. Near-duplicates are dropped.</li>
+ *     <li>Packing: selection stops adding chunks once the next one would exceed {@code docs.ai.context.max-tokens}.</li>
+ *     <li>Merging: chunks from the same page become one section in document order, with the page title given once,
+ *     and a heading trail shared with the previous chunk given once. Chunks do not overlap, so nothing else is
+ *     trimmed.</li>
+ * </ol>
+ * Sections are ordered by their most relevant chunk.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ContextAssembler {
+
+    /** Chunks sharing at least this share of their terms with a selected chunk add nothing new. */
+    private static final double DUPLICATE_SIMILARITY = 0.9;
+    private static final String SECTION_SEPARATOR = "\n\n---\n\n";
+
+    private final AiProperties properties;
+
+    public PromptContext assemble(List<DocumentChunk> candidates) {
+        AiProperties.Context config = properties.getContext();
+        List<DocumentChunk> selected = select(candidates, config);
+        String text = merge(selected);
+        int tokens = estimateTokens(text);
+        log.debug("Assembled a context of ~{} tokens from {} of {} retrieved chunks.", tokens, selected.size(), candidates.size());
+        return new PromptContext(selected, text, tokens);
+    }
+
+    private static List<DocumentChunk> select(List<DocumentChunk> candidates, AiProperties.Context config) {
+        int n = candidates.size();
+        List<Set<String>> terms = new ArrayList<>(n);
+        for (DocumentChunk candidate : candidates) {
+            terms.add(new HashSet<>(TextTokenizer.tokenize(candidate.content())));
+        }
+
+        double lambda = config.getMmrLambda();
+        int budget = Math.max(1, config.getMaxTokens());
+        double[] redundancy = new double[n];
+        boolean[] done = new boolean[n];
+        List<DocumentChunk> selected = new ArrayList<>();
+        int used = 0;
+        for (int round = 0; round < n; round++) {
+            int best = -1;
+            double bestScore = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < n; i++) {
+                double score = lambda * (1.0 - (double) i / n) - (1.0 - lambda) * redundancy[i];
+                if (!done[i] && score > bestScore) {
+                    best = i;
+                    bestScore = score;
+                }
+            }
+            done[best] = true;
+            if (redundancy[best] >= DUPLICATE_SIMILARITY) {
+                continue;
+            }
+            int cost = estimateTokens(candidates.get(best).content());
+            if (!selected.isEmpty() && used + cost > budget) {
+                continue; // A shorter, less relevant chunk may still fit
+            }
+
+            selected.add(candidates.get(best));
+            used += cost;
+            for (int i = 0; i < n; i++) {
+                if (!done[i]) {
+                    redundancy[i] = Math.max(redundancy[i], jaccard(terms.get(i), terms.get(best)));
+                }
+            }
+        }
+        return selected;
+    }
+
+    private static String merge(List<DocumentChunk> selected) {
+        Map<String, List<DocumentChunk>> bySource = new LinkedHashMap<>();
+        for (DocumentChunk chunk : selected) {
+            String source = Objects.requireNonNullElse(chunk.metadata().get("url"), chunk.id());
+            bySource.computeIfAbsent(source, key -> new ArrayList<>()).add(chunk);
+        }
+
+        List<String> sections = new ArrayList<>(bySource.size());
+        for (List<DocumentChunk> chunks : bySource.values()) {
+            chunks.sort(Comparator.comparingInt(ContextAssembler::chunkIndex));
+            StringBuilder section = new StringBuilder();
+            String title = chunks.get(0).metadata().get("title");
+            if (title != null && !title.isBlank()) {
+                section.append("Source: ").append(title).append("\n\n");
+            }
+            String previous = null;
+            for (DocumentChunk chunk : chunks) {
+                String content = previous == null ? chunk.content() : withoutRepeatedTrail(previous, chunk.content());
+                if (!content.isEmpty()) {
+                    if (previous != null) {
+                        section.append("\n\n");
+                    }
+                    section.append(content);
+                }
+                previous = chunk.content();
+            }
+            sections.add(section.toString().strip());
+        }
+        return String.join(SECTION_SEPARATOR, sections);
+    }
+
+    /**
+     * Removes from {@code next} a leading paragraph identical to the first one of {@code previous}, i.e. the heading
+     * trail both chunks start with. The rest of {@code next} is kept exactly, including code fences and indentation.
+     */
+    static String withoutRepeatedTrail(String previous, String next) {
+        String leading = firstParagraph(previous);
+        if (leading.isEmpty() || !leading.equals(firstParagraph(next))) {
+            return next;
+        }
+        int start = leading.length();
+        while (start < next.length() && next.charAt(start) == '\n') {
+            start++;
+        }
+        return next.substring(start);
+    }
+
+    private static String firstParagraph(String text) {
+        int end = text.indexOf("\n\n");
+        return end < 0 ? "" : text.substring(0, end);
+    }
+
+    private static int chunkIndex(DocumentChunk chunk) {
+        String index = chunk.metadata().get(ChunkMetadata.CHUNK_INDEX);
+        try {
+            return index != null ? Integer.parseInt(index) : Integer.MAX_VALUE;
+        } catch (NumberFormatException e) {
+            return Integer.MAX_VALUE;
+        }
+    }
+
+    private static double jaccard(Set<String> a, Set<String> b) {
+        if (a.isEmpty() || b.isEmpty()) {
+            return 0.0;
+        }
+        Set<String> smaller = a.size() <= b.size() ? a : b;
+        Set<String> larger = smaller == a ? b : a;
+        int shared = (int) smaller.stream().filter(larger::contains).count();
+        return (double) shared / (a.size() + b.size() - shared);
+    }
+
+    static int estimateTokens(String text) {
+        return (text.length() + MarkdownChunker.CHARS_PER_TOKEN - 1) / MarkdownChunker.CHARS_PER_TOKEN;
+    }
+}
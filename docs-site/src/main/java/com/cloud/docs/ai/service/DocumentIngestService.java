@@ -0,0 +1,276 @@
+package com.cloud.docs.ai.service;
+
+import com.cloud.docs.ai.config.AiProperties;
+import com.cloud.docs.ai.index.RecallReport;
+import com.cloud.docs.ai.model.DocumentChunk;
+import com.cloud.docs.ai.model.IngestStatus;
+import com.cloud.docs.controller.ApiRegistryService;
+import com.cloud.docs.controller.ApiSpecification;
+import com.cloud.docs.controller.ApiSpecificationLoader;
+import com.cloud.docs.controller.DocsHubRegistry;
+import com.cloud.docs.controller.DocsHubService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Loads the API specifications and docs hubs into the vector store in the background.
+ * <p>
+ * Every ingest is incremental: all sources are re-chunked, and chunks whose ID (a hash of content and URL) is
+ * already in the store keep their stored vector. Only new or edited chunks are embedded, and chunks that no longer
+ * exist are compacted away when the new snapshot is published. At startup the store is empty, so everything is new
+ * (though most of it is usually served from the {@link EmbeddingCache}).
+ * <p>
+ * Every source is chunked and embedded on its own virtual thread, so API specs and hubs are processed concurrently;
+ * the embedding calls still share the limits configured under {@code docs.ai.embedding.batching}. Chunks are
+ * embedded in bounded batches as the chunker emits them, so a large source is never held in memory as a whole. Until the pipeline
+ * has published its first snapshot, {@link #isReady()} is false and the assistant refuses questions rather than
+ * answering from a partial index. The rest of the site does not wait for it. A run in which every source fails is
+ * reported as {@code FAILED} and not published, and neither is a run that produced no chunks at all, so the
+ * assistant never answers from an index emptied by an outage.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DocumentIngestService {
+
+    private static final int RECALL_AT_K = 10;
+
+    private final ApiRegistryService apiRegistry;
+    private final ApiSpecificationLoader apiSpecificationLoader;
+    private final DocsHubRegistry docsHubRegistry;
+    private final VectorStore vectorStore;
+    private final EmbeddingService embeddingService;
+    private final EmbeddingCache embeddingCache;
+    private final AiProperties aiProperties;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicInteger sourcesTotal = new AtomicInteger();
+    private final AtomicInteger sourcesDone = new AtomicInteger();
+    private final AtomicInteger sourcesFailed = new AtomicInteger();
+    private final AtomicInteger chunksReused = new AtomicInteger();
+    private final AtomicInteger chunksAdded = new AtomicInteger();
+    private volatile IngestStatus.State state = IngestStatus.State.WARMING;
+    private volatile Instant startedAt;
+    private volatile long elapsedMillis;
+    private volatile String error;
+    private volatile VectorStore.Builder activeBuilder;
+    private volatile boolean published;
+
+    /**
+     * Starts an ingest of the sources currently loaded in the registries on a background virtual thread.
+     *
+     * @return {@code false} if an ingest is already running, in which case nothing is started.
+     */
+    public boolean startAsync() {
+        return start(false);
+    }
+
+    /**
+     * Starts a re-index on a background virtual thread: the API specifications are fetched again and the docs hubs
+     * re-scanned before the ingest, so edited, added and removed content is picked up.
+     *
+     * @return {@code false} if an ingest is already running, in which case nothing is started.
+     */
+    public boolean startReindex() {
+        return start(true);
+    }
+
+    private boolean start(boolean reloadSources) {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        state = IngestStatus.State.WARMING;
+        startedAt = Instant.now();
+        sourcesDone.set(0);
+        sourcesFailed.set(0);
+        chunksReused.set(0);
+        chunksAdded.set(0);
+        error = null;
+        Thread.ofVirtual().name("docs-ai-ingest").start(() -> ingest(reloadSources));
+        return true;
+    }
+
+    /**
+     * Whether the vector store has been loaded at least once. A later re-ingest keeps the store ready,
+     * since the previous contents stay searchable until the new ones are published.
+     */
+    public boolean isReady() {
+        return published;
+    }
+
+    public IngestStatus getStatus() {
+        Instant started = startedAt;
+        VectorStore.Builder builder = activeBuilder;
+        long elapsed = builder != null && started != null
+                ? System.currentTimeMillis() - started.toEpochMilli()
+                : elapsedMillis;
+        return new IngestStatus(state, sourcesTotal.get(), sourcesDone.get(), sourcesFailed.get(),
+                builder != null ? builder.size() : vectorStore.size(), chunksReused.get(), chunksAdded.get(),
+                started, elapsed, error);
+    }
+
+    private void ingest(boolean reloadSources) {
+        log.info("AI Assistant: Starting vector store ingest against {} indexed chunks...", vectorStore.size());
+        long startTime = startedAt.toEpochMilli();
+        // Chunks are loaded into a fresh builder; whatever the store holds stays searchable until it is published
+        VectorStore.Builder builder = vectorStore.newBuilder();
+        activeBuilder = builder;
+        try {
+            if (reloadSources) {
+                apiRegistry.reload(apiSpecificationLoader.loadAll());
+                docsHubRegistry.reload();
+            }
+            // 1. Collect the sources: each API specification and each docs hub is ingested as one unit
+            Map<String, Consumer<Consumer<DocumentChunk>>> sources = new LinkedHashMap<>();
+            apiRegistry.getSpecifications().forEach(apiSpec -> sources.put("API " + apiSpec.id(), sink -> apiChunks(apiSpec, sink)));
+            docsHubRegistry.getAllHubs().forEach(hub -> sources.put("hub " + hub.getHubName(), sink -> hubChunks(hub, sink)));
+            sourcesTotal.set(sources.size());
+
+            // 2. Chunk, embed and load every source concurrently
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                sources.forEach((name, chunker) -> executor.submit(() -> ingestSource(builder, name, chunker)));
+            }
+            // Never publish the result of a run in which every source failed (e.g. the embedding endpoint is down),
+            // nor an empty index: a first ingest stays not ready, a later one keeps the current snapshot
+            if (sourcesTotal.get() > 0 && sourcesDone.get() == 0) {
+                throw new IllegalStateException("All " + sourcesTotal.get() + " documentation sources failed to ingest; "
+                        + "keeping the " + vectorStore.size() + " chunks already indexed.");
+            }
+            if (builder.size() == 0) {
+                throw new IllegalStateException("The ingest produced no chunks; keeping the " + vectorStore.size()
+                        + " chunks already indexed.");
+            }
+            builder.publish();
+            published = true;
+
+            elapsedMillis = System.currentTimeMillis() - startTime;
+            log.info("AI Assistant: Vector store loaded with {} document chunks ({} reused, {} embedded) from {} sources in {}ms ({} failed, {} embeddings cached on disk).",
+                    vectorStore.size(), chunksReused.get(), chunksAdded.get(), sourcesDone.get(), elapsedMillis,
+                    sourcesFailed.get(), embeddingCache.size());
+
+            // 3. Report how closely an approximate index tracks exact search, so it can be tuned
+            AiProperties.Index indexConfig = aiProperties.getIndex();
+            if (indexConfig.getType() != AiProperties.IndexType.BRUTE_FORCE && indexConfig.getRecallSampleSize() > 0) {
+                RecallReport report = vectorStore.measureRecall(indexConfig.getRecallSampleSize(), RECALL_AT_K);
+                log.info("AI Assistant: Index {} recall@{} = {} over {} sampled queries.",
+                        report.index(), report.k(), String.format("%.3f", report.recall()), report.queries());
+            }
+            state = IngestStatus.State.READY;
+        } catch (RuntimeException e) {
+            elapsedMillis = System.currentTimeMillis() - startTime;
+            error = e.getMessage();
+            state = IngestStatus.State.FAILED;
+            log.error("AI Assistant: Vector store ingest failed after {}ms.", elapsedMillis, e);
+        } finally {
+            activeBuilder = null;
+            running.set(false);
+        }
+    }
+
+    /**
+     * Chunks one source and loads it into the builder. Chunks already in the store are reused as they are emitted;
+     * the rest are collected until they fill every embedding request allowed in flight, then embedded and loaded,
+     * so at most one such batch per source is held at a time.
+     */
+    private void ingestSource(VectorStore.Builder builder, String name, Consumer<Consumer<DocumentChunk>> chunker) {
+        AiProperties.Batching batching = aiProperties.getEmbedding().getBatching();
+        int flushSize = Math.max(1, batching.getBatchSize()) * Math.max(1, batching.getMaxInFlight());
+        List<DocumentChunk> toEmbed = new ArrayList<>(flushSize);
+        int[] loaded = new int[2]; // reused, embedded
+        try {
+            chunker.accept(chunk -> {
+                if (builder.reuse(chunk)) {
+                    loaded[0]++;
+                    chunksReused.incrementAndGet();
+                } else {
+                    toEmbed.add(chunk);
+                    if (toEmbed.size() >= flushSize) {
+                        loaded[1] += embedAndLoad(builder, toEmbed);
+                    }
+                }
+            });
+            loaded[1] += embedAndLoad(builder, toEmbed);
+            sourcesDone.incrementAndGet();
+            log.debug("AI Assistant: Loaded {}: {} chunks reused, {} embedded.", name, loaded[0], loaded[1]);
+        } catch (RuntimeException e) {
+            sourcesFailed.incrementAndGet();
+            log.error("AI Assistant: Failed to ingest {} after loading {} of its chunks; the rest will be missing from the assistant's answers.",
+                    name, loaded[0] + loaded[1], e);
+        }
+    }
+
+    /**
+     * Embeds the pending chunks, loads them and clears the list for the next batch. A failed embedding batch
+     * propagates, so the source is counted as failed.
+     */
+    private int embedAndLoad(VectorStore.Builder builder, List<DocumentChunk> pending) {
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        List<DocumentChunk> embedded = embeddingService.embedChunks(pending);
+        pending.clear();
+        builder.addAll(embedded);
+        chunksAdded.addAndGet(embedded.size());
+        return embedded.size();
+    }
+
+    private void apiChunks(ApiSpecification apiSpec, Consumer<DocumentChunk> sink) {
+        String apiTitle = apiSpec.title();
+        apiSpec.openAPI().getPaths().forEach((path, pathItem) -> {
+            pathItem.readOperationsMap().forEach((httpMethod, operation) -> {
+                if (operation != null && operation.getOperationId() != null && operation.getDescription() != null) {
+                    String content = operation.getDescription(); // Use description as primary content
+                    String url = "/api?apiId=" + apiSpec.id() + "#" + operation.getOperationId();
+                    String title = operation.getSummary();
+                    String breadcrumb = apiTitle + " → " + (operation.getTags() != null && !operation.getTags().isEmpty() ? operation.getTags().get(0) : "General");
+
+                    Map<String, String> metadata = Map.of(
+                            "title", title,
+                            "url", url,
+                            "breadcrumb", breadcrumb,
+                            "type", "api-operation",
+                            "apiId", apiSpec.id(),
+                            "operationId", operation.getOperationId()
+                    );
+
+                    embeddingService.splitDocument(content, metadata, sink);
+                }
+            });
+        });
+    }
+
+    private void hubChunks(DocsHubService hub, Consumer<DocumentChunk> sink) {
+        String hubTitle = hub.getArticleTree().title();
+        hub.getFlatArticleList().forEach(article -> {
+            if (article.content() != null && !article.content().isBlank()) {
+                String content = article.content();
+                String url = "/hub/" + hub.getHubName() + "?article=" + article.id();
+                String title = article.title();
+                String breadcrumb = hubTitle;
+
+                Map<String, String> metadata = Map.of(
+                        "title", title,
+                        "url", url,
+                        "breadcrumb", breadcrumb,
+                        "type", "markdown-article",
+                        "hubName", hub.getHubName(),
+                        "articleId", article.id()
+                );
+
+                embeddingService.splitDocument(content, metadata, sink);
+            }
+        });
+    }
+}
@@ -0,0 +1,228 @@
+package com.cloud.docs.ai.service;
+
+import com.cloud.docs.ai.config.AiProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A persistent, content-addressed cache of document embeddings, so a restart only embeds chunks whose text changed.
+ * <p>
+ * Entries are keyed by the SHA-256 of the chunk text alone, so identical text under different URLs is embedded
+ * once. Each embedding model and dimension gets its own file, {@code <directory>/<model>-<dimensions>.vec}:
+ * an 8-byte header (magic, dimension) followed by fixed-size records of a 32-byte hash and the vector as
+ * big-endian floats. Existing records are memory-mapped at startup; new ones are appended to the file and
+ * also kept in memory until the next restart.
+ * <p>
+ * A single mapping is limited to 2 GiB, so the file is mapped in segments of at most 1 GiB,
+ * each holding a whole number of records, and records are addressed by their {@code long} file offset.
+ * A 3072-dimension cache reaches 2 GiB at roughly 175,000 embeddings.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EmbeddingCache {
+
+    private static final int MAGIC = 0x45564543; // "EVEC"
+    private static final int HEADER_BYTES = 2 * Integer.BYTES;
+    private static final int HASH_BYTES = 32;
+    private static final int MAX_SEGMENT_BYTES = 1 << 30;
+
+    private final AiProperties properties;
+
+    private final Map<String, Long> mappedOffsets = new ConcurrentHashMap<>();
+    private final Map<String, float[]> appended = new ConcurrentHashMap<>();
+    private final AtomicBoolean dimensionMismatchReported = new AtomicBoolean();
+
+    private volatile boolean opened;
+    private FileChannel channel;
+    private MappedByteBuffer[] segments;
+    private long segmentBytes;
+    private int dimensions;
+
+    /**
+     * Returns the cached embedding for the text, or {@code null} if it has not been embedded before.
+     */
+    public float[] get(String text) {
+        if (!ensureOpen()) {
+            return null;
+        }
+        String key = hash(text);
+        float[] recent = appended.get(key);
+        if (recent != null) {
+            return recent;
+        }
+        Long offset = mappedOffsets.get(key);
+        return offset != null ? readMapped(offset) : null;
+    }
+
+    /**
+     * Stores an embedding for the text. Vectors whose length does not match the configured dimension are ignored,
+     * and the first such vector is reported at warn level, since it means the cache is not being used at all.
+     */
+    public void put(String text, float[] embedding) {
+        if (!ensureOpen()) {
+            return;
+        }
+        if (embedding.length != dimensions) {
+            if (dimensionMismatchReported.compareAndSet(false, true)) {
+                log.warn("The embedding model returns vectors of dimension {} but docs.ai.embedding.dimensions is {}; "
+                        + "no embeddings will be cached until the two match.", embedding.length, dimensions);
+            }
+            return;
+        }
+        String key = hash(text);
+        if (mappedOffsets.containsKey(key) || appended.putIfAbsent(key, embedding) != null) {
+            return;
+        }
+
+        ByteBuffer record = ByteBuffer.allocate(recordBytes());
+        record.put(Base64.getUrlDecoder().decode(key));
+        for (float value : embedding) {
+            record.putFloat(value);
+        }
+        record.flip();
+        synchronized (this) {
+            try {
+                while (record.hasRemaining()) {
+                    channel.write(record, channel.size());
+                }
+            } catch (IOException e) {
+                log.warn("Failed to append to the embedding cache; the entry is kept in memory only.", e);
+            }
+        }
+    }
+
+    public int size() {
+        return mappedOffsets.size() + appended.size();
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                log.warn("Failed to close the embedding cache file.", e);
+            }
+        }
+    }
+
+    private boolean ensureOpen() {
+        if (opened) {
+            return channel != null;
+        }
+        synchronized (this) {
+            if (!opened) {
+                open();
+                opened = true;
+            }
+        }
+        return channel != null;
+    }
+
+    /**
+     * Opens (or creates) the cache file and indexes the records already in it. On any I/O failure the cache
+     * disables itself and embeddings are simply computed every time.
+     */
+    private void open() {
+        AiProperties.Embedding config = properties.getEmbedding();
+        if (!config.getCache().isEnabled()) {
+            log.info("Embedding cache is disabled.");
+            return;
+        }
+        dimensions = config.getDimensions();
+        String fileName = config.getModel().replaceAll("[^A-Za-z0-9._-]", "_") + "-" + dimensions + ".vec";
+        Path file = Paths.get(config.getCache().getDirectory()).resolve(fileName);
+        try {
+            Files.createDirectories(file.getParent());
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+            if (channel.size() < HEADER_BYTES) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).putInt(dimensions).flip();
+                channel.truncate(0);
+                channel.write(header, 0);
+            } else {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+                channel.read(header, 0);
+                header.flip();
+                if (header.getInt() != MAGIC || header.getInt() != dimensions) {
+                    log.warn("Embedding cache file {} has an unexpected header. Starting a fresh cache.", file);
+                    channel.truncate(0);
+                    channel.write(ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).putInt(dimensions).flip(), 0);
+                }
+            }
+
+            long records = (channel.size() - HEADER_BYTES) / recordBytes();
+            long validEnd = HEADER_BYTES + records * recordBytes();
+            if (channel.size() != validEnd) {
+                // A partially written record from an interrupted append; drop it.
+                channel.truncate(validEnd);
+            }
+
+            // Segments start after the header and hold whole records, so no record straddles two mappings
+            segmentBytes = (long) Math.max(1, MAX_SEGMENT_BYTES / recordBytes()) * recordBytes();
+            segments = new MappedByteBuffer[(int) ((validEnd - HEADER_BYTES + segmentBytes - 1) / segmentBytes)];
+            for (int i = 0; i < segments.length; i++) {
+                long start = HEADER_BYTES + i * segmentBytes;
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(segmentBytes, validEnd - start));
+            }
+            byte[] hash = new byte[HASH_BYTES];
+            for (long i = 0; i < records; i++) {
+                long offset = HEADER_BYTES + i * recordBytes();
+                segment(offset).get(positionInSegment(offset), hash);
+                mappedOffsets.put(Base64.getUrlEncoder().withoutPadding().encodeToString(hash), offset);
+            }
+            log.info("Embedding cache {} opened with {} cached embeddings.", file, mappedOffsets.size());
+        } catch (IOException | RuntimeException e) {
+            log.warn("Embedding cache {} could not be opened; embeddings will not be cached.", file, e);
+            close();
+            channel = null;
+        }
+    }
+
+    private float[] readMapped(long offset) {
+        float[] embedding = new float[dimensions];
+        segment(offset).asReadOnlyBuffer().position(positionInSegment(offset) + HASH_BYTES).asFloatBuffer().get(embedding);
+        return embedding;
+    }
+
+    private MappedByteBuffer segment(long offset) {
+        return segments[(int) ((offset - HEADER_BYTES) / segmentBytes)];
+    }
+
+    private int positionInSegment(long offset) {
+        return (int) ((offset - HEADER_BYTES) % segmentBytes);
+    }
+
+    private int recordBytes() {
+        return HASH_BYTES + dimensions * Float.BYTES;
+    }
+
+    private static String hash(String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(text.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available.", e);
+        }
+    }
+}
@@ -1,15 +1,34 @@
 package com.cloud.docs.ai.service;
 
+import com.cloud.docs.ai.config.AiProperties;
+import com.cloud.docs.ai.model.ChunkMetadata;
 import com.cloud.docs.ai.model.DocumentChunk;
+import com.cloud.docs.ai.model.SourceDocument;
+import com.google.api.gax.rpc.ApiException;
+import com.google.api.gax.rpc.StatusCode;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.retry.TransientAiException;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientResponseException;
 
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
 
 /**
  * Service responsible for converting text into numerical embeddings and chunking documents.
@@ -20,56 +39,196 @@ import java.util.*;
 public class EmbeddingService {
 
     private final EmbeddingModel embeddingModel;
+    private final EmbeddingCache embeddingCache;
+    private final MarkdownChunker markdownChunker;
+    private final AiProperties aiProperties;
+
+    private static final Set<StatusCode.Code> TRANSIENT_API_CODES = EnumSet.of(
+            StatusCode.Code.RESOURCE_EXHAUSTED, StatusCode.Code.UNAVAILABLE, StatusCode.Code.DEADLINE_EXCEEDED);
+    private static final Set<Status.Code> TRANSIENT_GRPC_CODES = EnumSet.of(
+            Status.Code.RESOURCE_EXHAUSTED, Status.Code.UNAVAILABLE, Status.Code.DEADLINE_EXCEEDED);
+    private static final Set<Integer> TRANSIENT_HTTP_STATUSES = Set.of(
+            HttpStatus.TOO_MANY_REQUESTS.value(), HttpStatus.BAD_GATEWAY.value(),
+            HttpStatus.SERVICE_UNAVAILABLE.value(), HttpStatus.GATEWAY_TIMEOUT.value());
+
+    /** Bounds the batches in flight across all concurrent callers, e.g. several sources ingesting at once. */
+    private Semaphore inFlight;
+
+    @PostConstruct
+    public void initializeBatching() {
+        inFlight = new Semaphore(Math.max(1, aiProperties.getEmbedding().getBatching().getMaxInFlight()));
+    }
 
-    private static final int CHUNK_SIZE = 500;
-    private static final int CHUNK_OVERLAP = 100;
-
-    public List<Double> embed(String text) {
-        // Per your request, this code handles the conversion from a float[] to a List<Double>.
-        // It assumes the underlying model call returns a float array, as indicated by the compilation error.
-        float[] embedArray = this.embeddingModel.embed(text);
+    /**
+     * Embeds the given text. The model's float[] is returned as-is, so no per-dimension boxing happens.
+     */
+    public float[] embed(String text) {
+        float[] embedding = this.embeddingModel.embed(text);
 
-        if (embedArray == null || embedArray.length == 0) {
+        if (embedding == null || embedding.length == 0) {
             log.error("Failed to get embedding for text. The response was empty.");
             throw new RuntimeException("Embedding failed. The AI model returned an empty response.");
         }
 
-        // Manually convert the float array to a List of Doubles.
-        List<Double> embedding = new ArrayList<>(embedArray.length);
-        for (float value : embedArray) {
-            embedding.add((double) value);
-        }
-
         return embedding;
     }
 
     public List<DocumentChunk> chunkDocument(String documentContent, Map<String, String> metadata) {
+        return embedChunks(splitDocument(documentContent, metadata));
+    }
+
+    /**
+     * Splits a Markdown document into chunks without embedding them. The returned chunks have a
+     * {@code null} embedding and are meant to be passed to {@link #embedChunks(List)}, ideally together with the
+     * chunks of every other document so they can share batches.
+     */
+    public List<DocumentChunk> splitDocument(String documentContent, Map<String, String> metadata) {
         List<DocumentChunk> chunks = new ArrayList<>();
-        if (documentContent == null || documentContent.isBlank()) {
-            return chunks;
-        }
+        splitDocument(documentContent, metadata, chunks::add);
+        return chunks;
+    }
 
-        String cleanedContent = documentContent.replaceAll("\\s+", " ").trim();
+    /**
+     * Splits a Markdown document along its headings, paragraphs and code blocks (see {@link MarkdownChunker}) and
+     * passes each chunk to the sink as soon as it is complete. All chunks share one {@link SourceDocument} holding the
+     * given metadata; each chunk's metadata adds its position in the document as {@code chunkIndex}.
+     */
+    public void splitDocument(String documentContent, Map<String, String> metadata, Consumer<DocumentChunk> sink) {
+        String url = metadata.get("url");
+        SourceDocument source = new SourceDocument(metadata);
+        int[] count = new int[1];
+        markdownChunker.split(documentContent, chunkContent -> sink.accept(new DocumentChunk(
+                generateChunkId(chunkContent, url), chunkContent, null, new ChunkMetadata(source, count[0]++))));
+        log.debug("Chunked document {} into {} chunks.", url, count[0]);
+    }
 
-        int currentPosition = 0;
-        while (currentPosition < cleanedContent.length()) {
-            int endPosition = Math.min(currentPosition + CHUNK_SIZE, cleanedContent.length());
-            String chunkContent = cleanedContent.substring(currentPosition, endPosition);
+    /**
+     * Embeds chunks produced by {@link #splitDocument(String, Map)}.
+     * <p>
+     * Texts already in the persistent {@link EmbeddingCache} are not sent again, and identical texts are embedded
+     * once. The rest go through the model's list-based call in batches of {@code docs.ai.embedding.batching.batch-size},
+     * with at most {@code max-in-flight} batches outstanding across all callers. Throttled or transiently failing batches are retried
+     * with exponential backoff. If a batch still fails, the call fails once every batch has finished; the batches that
+     * did succeed are already in the cache, so a later attempt only sends the failed texts again.
+     *
+     * @return The chunks in input order, each carrying its embedding.
+     * @throws IllegalStateException if any batch could not be embedded, with the first failure as its cause.
+     */
+    public List<DocumentChunk> embedChunks(List<DocumentChunk> pending) {
+        Map<String, float[]> vectors = new HashMap<>();
+        Set<String> missing = new LinkedHashSet<>();
+        for (DocumentChunk chunk : pending) {
+            if (vectors.containsKey(chunk.content()) || missing.contains(chunk.content())) {
+                continue;
+            }
+            float[] cached = embeddingCache.get(chunk.content());
+            if (cached != null) {
+                vectors.put(chunk.content(), cached);
+            } else {
+                missing.add(chunk.content());
+            }
+        }
+        int fromCache = vectors.size();
+        if (!missing.isEmpty()) {
+            vectors.putAll(embedBatched(new ArrayList<>(missing)));
+        }
 
-            String chunkId = generateChunkId(chunkContent, metadata.get("url"));
-            List<Double> embedding = embed(chunkContent);
+        List<DocumentChunk> embedded = new ArrayList<>(pending.size());
+        for (DocumentChunk chunk : pending) {
+            float[] embedding = vectors.get(chunk.content());
+            if (embedding != null) {
+                embedded.add(new DocumentChunk(chunk.id(), chunk.content(), embedding, chunk.metadata()));
+            }
+        }
+        log.debug("Embedded {} chunks: {} distinct texts from cache, {} sent to the model.",
+                pending.size(), fromCache, missing.size());
+        return embedded;
+    }
 
-            // This now compiles correctly because DocumentChunk expects a List<Double>
-            chunks.add(new DocumentChunk(chunkId, chunkContent, embedding, metadata));
+    private Map<String, float[]> embedBatched(List<String> texts) {
+        AiProperties.Batching config = aiProperties.getEmbedding().getBatching();
+        int batchSize = Math.max(1, config.getBatchSize());
+        Map<String, float[]> results = new ConcurrentHashMap<>();
+        List<RuntimeException> failures = Collections.synchronizedList(new ArrayList<>());
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int start = 0; start < texts.size(); start += batchSize) {
+                List<String> batch = texts.subList(start, Math.min(start + batchSize, texts.size()));
+                inFlight.acquireUninterruptibly();
+                executor.submit(() -> {
+                    try {
+                        List<float[]> embeddings = embedWithRetry(batch, config);
+                        for (int i = 0; i < batch.size(); i++) {
+                            results.put(batch.get(i), embeddings.get(i));
+                            embeddingCache.put(batch.get(i), embeddings.get(i));
+                        }
+                    } catch (RuntimeException e) {
+                        failures.add(e);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+        if (!failures.isEmpty()) {
+            int batches = (texts.size() + batchSize - 1) / batchSize;
+            throw new IllegalStateException("Failed to embed " + failures.size() + " of " + batches + " batches of up to "
+                    + batchSize + " chunks.", failures.get(0));
+        }
+        return results;
+    }
 
-            if (endPosition == cleanedContent.length()) {
-                break;
+    private List<float[]> embedWithRetry(List<String> batch, AiProperties.Batching config) {
+        long backoffMillis = config.getInitialBackoff().toMillis();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                List<float[]> embeddings = embeddingModel.embed(batch);
+                if (embeddings == null || embeddings.size() != batch.size()
+                        || embeddings.stream().anyMatch(e -> e == null || e.length == 0)) {
+                    throw new RuntimeException("Embedding failed. The AI model returned an incomplete response for a batch of " + batch.size() + ".");
+                }
+                return embeddings;
+            } catch (RuntimeException e) {
+                if (attempt >= config.getMaxAttempts() || !isTransient(e)) {
+                    throw e;
+                }
+                long delay = Math.min(backoffMillis, config.getMaxBackoff().toMillis());
+                delay += ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+                log.warn("Embedding batch of {} was throttled or failed transiently (attempt {}/{}); retrying in {}ms. Cause: {}",
+                        batch.size(), attempt, config.getMaxAttempts(), delay, e.getMessage());
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+                backoffMillis *= 2;
             }
+        }
+    }
 
-            currentPosition += (CHUNK_SIZE - CHUNK_OVERLAP);
+    /**
+     * Whether a failure is throttling or a transient outage of the embedding endpoint, judged from the status the
+     * exception chain carries: the gRPC code of the Vertex client (as a GAX {@link ApiException} or a raw
+     * {@link StatusRuntimeException}), the HTTP status of a REST client, or Spring AI's {@link TransientAiException}.
+     * The first status found decides, so a quota error is retried and a rejected request is not.
+     */
+    static boolean isTransient(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ApiException apiException) {
+                return TRANSIENT_API_CODES.contains(apiException.getStatusCode().getCode());
+            }
+            if (cause instanceof StatusRuntimeException grpcException) {
+                return TRANSIENT_GRPC_CODES.contains(grpcException.getStatus().getCode());
+            }
+            if (cause instanceof RestClientResponseException httpException) {
+                return TRANSIENT_HTTP_STATUSES.contains(httpException.getStatusCode().value());
+            }
+            if (cause instanceof TransientAiException || cause instanceof IOException || cause instanceof TimeoutException) {
+                return true;
+            }
         }
-        log.debug("Chunked document into {} chunks. First chunk: {}", chunks.size(), chunks.isEmpty() ? "N/A" : chunks.get(0).id());
-        return chunks;
+        return false;
     }
 
     private String generateChunkId(String content, String sourceUrl) {
@@ -83,4 +242,4 @@ public class EmbeddingService {
             return String.valueOf((content + sourceUrl).hashCode());
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,183 @@
+package com.cloud.docs.ai.service;
+
+import com.cloud.docs.ai.config.AiProperties;
+import lombok.RequiredArgsConstructor;
+import org.commonmark.Extension;
+import org.commonmark.ext.gfm.strikethrough.StrikethroughExtension;
+import org.commonmark.ext.gfm.tables.TablesExtension;
+import org.commonmark.node.FencedCodeBlock;
+import org.commonmark.node.Heading;
+import org.commonmark.node.IndentedCodeBlock;
+import org.commonmark.node.Node;
+import org.commonmark.node.ThematicBreak;
+import org.commonmark.parser.Parser;
+import org.commonmark.renderer.text.TextContentRenderer;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Splits Markdown into chunks along its structure instead of at fixed character offsets.
+ * <p>
+ * The document is parsed with the shared commonmark {@link Parser} and its top-level blocks (headings, paragraphs,
+ * lists, tables, code blocks) are packed into a chunk until the next one would exceed
+ * {@code docs.ai.embedding.chunking.max-tokens}. A heading closes the current chunk once it holds at least
+ * {@code min-tokens}, so sections stay apart without leaving tiny fragments. Every chunk starts with the trail of
+ * headings it sits under, so a chunk from the middle of a long section still says what it is about. Code blocks
+ * keep their line breaks; a single block larger than the budget is split at line, then word boundaries. Chunks do
+ * not overlap.
+ * <p>
+ * Chunks are passed to the caller as soon as they are complete, so neither a cleaned copy of the document nor the
+ * list of all its chunks is held. Tokens are estimated at four characters each.
+ */
+@Component
+@RequiredArgsConstructor
+public class MarkdownChunker {
+
+    static final int CHARS_PER_TOKEN = 4;
+    private static final List<Extension> EXTENSIONS = List.of(TablesExtension.create(), StrikethroughExtension.create());
+
+    private final Parser markdownParser;
+    private final AiProperties properties;
+    private final TextContentRenderer textRenderer = TextContentRenderer.builder().extensions(EXTENSIONS).build();
+
+    /**
+     * Parses the Markdown and passes each chunk's text to the sink, in document order.
+     */
+    public void split(String markdown, Consumer<String> sink) {
+        if (markdown == null || markdown.isBlank()) {
+            return;
+        }
+        AiProperties.Chunking config = properties.getEmbedding().getChunking();
+        ChunkWriter writer = new ChunkWriter(Math.max(1, config.getMaxTokens()) * CHARS_PER_TOKEN,
+                Math.max(0, config.getMinTokens()) * CHARS_PER_TOKEN, sink);
+
+        for (Node block = markdownParser.parse(markdown).getFirstChild(); block != null; block = block.getNext()) {
+            if (block instanceof Heading heading) {
+                writer.heading(heading.getLevel(), prose(heading));
+            } else if (block instanceof FencedCodeBlock code) {
+                String info = Objects.requireNonNullElse(code.getInfo(), "");
+                writer.block("```" + info + "\n" + code.getLiteral().stripTrailing() + "\n```");
+            } else if (block instanceof IndentedCodeBlock code) {
+                writer.block(code.getLiteral().stripTrailing());
+            } else if (!(block instanceof ThematicBreak)) {
+                writer.block(prose(block));
+            }
+        }
+        writer.flush();
+    }
+
+    /**
+     * Renders a block to plain text, keeping one line per line of output but no blank lines or runs of spaces.
+     */
+    private String prose(Node block) {
+        return textRenderer.render(block).lines()
+                .map(line -> line.replaceAll("\\s+", " ").strip())
+                .filter(line -> !line.isEmpty())
+                .collect(Collectors.joining("\n"));
+    }
+
+    /**
+     * Packs blocks into chunks of at most {@code maxChars} and hands every finished chunk to the sink.
+     */
+    private static final class ChunkWriter {
+
+        private static final int MAX_HEADING_LEVEL = 6;
+
+        private final int maxChars;
+        private final int minChars;
+        private final Consumer<String> sink;
+        private final String[] headings = new String[MAX_HEADING_LEVEL + 1];
+        private final StringBuilder chunk = new StringBuilder();
+        private int bodyStart = -1;
+
+        ChunkWriter(int maxChars, int minChars, Consumer<String> sink) {
+            this.maxChars = maxChars;
+            this.minChars = minChars;
+            this.sink = sink;
+        }
+
+        void heading(int level, String text) {
+            if (hasBody() && chunk.length() - bodyStart >= minChars) {
+                flush();
+            }
+            int clamped = Math.max(1, Math.min(level, MAX_HEADING_LEVEL));
+            Arrays.fill(headings, clamped, headings.length, null);
+            headings[clamped] = text;
+            if (hasBody()) {
+                // Too little above this heading to stand alone; it continues the current chunk
+                block(text);
+            }
+        }
+
+        void block(String text) {
+            if (text.isEmpty()) {
+                return;
+            }
+            if (hasBody() && chunk.length() + 2 + text.length() > maxChars) {
+                flush();
+            }
+            if (!hasBody()) {
+                start();
+            }
+
+            // A block that does not fit even an empty chunk becomes several chunks of its own
+            int room = Math.max(maxChars - bodyStart, maxChars / 2);
+            while (text.length() > room && chunk.length() == bodyStart) {
+                int cut = breakBefore(text, room);
+                chunk.append(text, 0, cut);
+                emit();
+                text = text.substring(cut).strip();
+                start();
+            }
+            if (chunk.length() > bodyStart) {
+                chunk.append("\n\n");
+            }
+            chunk.append(text);
+        }
+
+        void flush() {
+            if (hasBody() && chunk.length() > bodyStart) {
+                emit();
+            }
+            bodyStart = -1;
+        }
+
+        private boolean hasBody() {
+            return bodyStart >= 0;
+        }
+
+        private void start() {
+            chunk.setLength(0);
+            String trail = Arrays.stream(headings)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.joining(" > "));
+            if (!trail.isEmpty()) {
+                chunk.append(trail).append("\n\n");
+            }
+            bodyStart = chunk.length();
+        }
+
+        private void emit() {
+            sink.accept(chunk.toString().strip());
+            chunk.setLength(0);
+        }
+
+        /**
+         * The last line break, or failing that the last space, at or before {@code limit}; never mid-word
+         * unless a single word is longer than the limit.
+         */
+        private static int breakBefore(String text, int limit) {
+            int lineBreak = text.lastIndexOf('\n', limit);
+            if (lineBreak > limit / 2) {
+                return lineBreak;
+            }
+            int space = text.lastIndexOf(' ', limit);
+            return space > 0 ? space : limit;
+        }
+    }
+}
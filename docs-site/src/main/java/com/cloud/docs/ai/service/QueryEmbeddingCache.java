@@ -0,0 +1,81 @@
+package com.cloud.docs.ai.service;
+
+import com.cloud.docs.ai.config.AiProperties;
+import com.cloud.docs.ai.model.CacheStats;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * A bounded, in-memory LRU of question text to query embedding, in front of the remote embedding call.
+ * <p>
+ * Keys are normalized (trimmed, whitespace collapsed, lower-cased), so "How do I refund?" and "how do i  refund?"
+ * share an entry. Misses are computed outside the lock, so a slow embedding call never blocks hits; two concurrent
+ * misses for the same question may both call the model. Returned vectors are shared and must not be modified.
+ */
+@Component
+@RequiredArgsConstructor
+public class QueryEmbeddingCache {
+
+    private final AiProperties properties;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final Map<String, float[]> entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, float[]> eldest) {
+            if (size() > maxEntries()) {
+                evictions.incrementAndGet();
+                return true;
+            }
+            return false;
+        }
+    };
+
+    /**
+     * Returns the cached embedding for the question, computing and caching it on a miss.
+     */
+    public float[] get(String query, Function<String, float[]> embedder) {
+        if (!properties.getEmbedding().getQueryCache().isEnabled()) {
+            return embedder.apply(query);
+        }
+        String key = normalize(query);
+        float[] cached;
+        synchronized (entries) {
+            cached = entries.get(key);
+        }
+        if (cached != null) {
+            hits.incrementAndGet();
+            return cached;
+        }
+
+        misses.incrementAndGet();
+        float[] embedding = embedder.apply(query);
+        synchronized (entries) {
+            entries.put(key, embedding);
+        }
+        return embedding;
+    }
+
+    public CacheStats stats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return new CacheStats(size, maxEntries(), hits.get(), misses.get(), evictions.get());
+    }
+
+    static String normalize(String query) {
+        return query.strip().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private int maxEntries() {
+        return Math.max(1, properties.getEmbedding().getQueryCache().getMaxEntries());
+    }
+}
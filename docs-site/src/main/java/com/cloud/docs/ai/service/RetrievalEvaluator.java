@@ -0,0 +1,153 @@
+package com.cloud.docs.ai.service;
+
+import com.cloud.docs.ai.config.AiProperties;
+import com.cloud.docs.ai.index.IndexEvaluation;
+import com.cloud.docs.ai.model.EvaluationReport;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Measures every vector index variant against exact search before a faster retrieval path is trusted.
+ * <p>
+ * Each configured index type is built over the store's current vectors and asked the same queries: the fixed
+ * {@code docs.ai.evaluation.queries}, embedded once, or otherwise a sample of stored chunks. The
+ * {@link EvaluationReport} holds recall@k against brute force, latency percentiles, throughput and bytes per
+ * vector for every variant. {@code POST /api/ai/admin/evaluation} starts one in the background and
+ * {@code GET} returns the last report. With
+ * {@code docs.ai.evaluation.enabled=true} it is also produced once after the first ingest and written as JSON to
+ * {@code output-file}. A CI job can then start the app with the {@code offline} profile and {@code exit-when-done},
+ * and fail on the exit status when an index drops below {@code min-recall}.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RetrievalEvaluator {
+
+    private static final long READY_POLL_MILLIS = 200L;
+
+    private final VectorStore vectorStore;
+    private final EmbeddingService embeddingService;
+    private final DocumentIngestService documentIngestService;
+    private final AiProperties properties;
+    private final ObjectMapper objectMapper;
+    private final ApplicationContext applicationContext;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile EvaluationReport lastReport;
+
+    /**
+     * Evaluates the configured index types with the configured queries and k.
+     */
+    public EvaluationReport evaluate() {
+        AiProperties.Evaluation config = properties.getEvaluation();
+        return evaluate(config.getIndexTypes(), config.getK(), config.getSampleSize());
+    }
+
+    public EvaluationReport evaluate(List<AiProperties.IndexType> types, int k, int sampleSize) {
+        List<String> texts = properties.getEvaluation().getQueries();
+        List<float[]> queries = texts.stream().map(embeddingService::embed).toList();
+        List<IndexEvaluation> indexes = vectorStore.evaluateIndexes(queries, sampleSize, k, types);
+        return new EvaluationReport(Instant.now(), vectorStore.size(), vectorStore.dimension(),
+                vectorStore.getKernelName(), texts.isEmpty() ? "sampled" : "configured", indexes);
+    }
+
+    /**
+     * Runs an evaluation on a virtual thread, keeping the caller's thread free; the result becomes
+     * {@link #getLastReport()}.
+     *
+     * @return {@code false} if an evaluation is already running, in which case none is started.
+     */
+    public boolean startAsync(List<AiProperties.IndexType> types, int k, int sampleSize) {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        Thread.ofVirtual().name("docs-ai-evaluation").start(() -> {
+            try {
+                lastReport = evaluate(types, k, sampleSize);
+            } catch (RuntimeException e) {
+                log.error("AI Assistant: Index evaluation failed.", e);
+            } finally {
+                running.set(false);
+            }
+        });
+        return true;
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    /**
+     * The report of the last evaluation that finished, or {@code null} if none has.
+     */
+    public EvaluationReport getLastReport() {
+        return lastReport;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startEvaluation() {
+        if (properties.getEvaluation().isEnabled()) {
+            Thread.ofVirtual().name("docs-ai-evaluation").start(this::runStartupEvaluation);
+        }
+    }
+
+    private void runStartupEvaluation() {
+        AiProperties.Evaluation config = properties.getEvaluation();
+        try {
+            // Wait for the first ingest, and for an evaluation started through the admin API to finish
+            while (!documentIngestService.isReady() || !running.compareAndSet(false, true)) {
+                Thread.sleep(READY_POLL_MILLIS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        int exitCode = 0;
+        try {
+            EvaluationReport report = evaluate();
+            lastReport = report;
+            if (config.getOutputFile() != null && !config.getOutputFile().isBlank()) {
+                Path output = Path.of(config.getOutputFile());
+                if (output.getParent() != null) {
+                    Files.createDirectories(output.getParent());
+                }
+                objectMapper.writerWithDefaultPrettyPrinter().writeValue(output.toFile(), report);
+                log.info("AI Assistant: Index evaluation written to {}.", output.toAbsolutePath());
+            }
+            for (IndexEvaluation index : report.indexes()) {
+                if (index.recall() < config.getMinRecall()) {
+                    log.error("AI Assistant: Index {} recall@{} = {} is below the required {}.", index.index(), index.k(),
+                            String.format("%.3f", index.recall()), config.getMinRecall());
+                    exitCode = 1;
+                }
+            }
+            if (report.indexes().isEmpty()) {
+                log.warn("AI Assistant: Index evaluation found no vectors or queries to evaluate.");
+            }
+        } catch (IOException | RuntimeException e) {
+            log.error("AI Assistant: Index evaluation failed.", e);
+            exitCode = 2;
+        } finally {
+            running.set(false);
+        }
+
+        if (config.isExitWhenDone()) {
+            int status = exitCode;
+            System.exit(SpringApplication.exit(applicationContext, () -> status));
+        }
+    }
+}
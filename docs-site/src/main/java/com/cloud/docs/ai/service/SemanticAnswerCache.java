@@ -0,0 +1,126 @@
+package com.cloud.docs.ai.service;
+
+import com.cloud.docs.ai.config.AiProperties;
+import com.cloud.docs.ai.index.ScalarKernel;
+import com.cloud.docs.ai.index.VectorSlab;
+import com.cloud.docs.ai.model.AiResponse;
+import com.cloud.docs.ai.model.CacheStats;
+import com.cloud.docs.ai.model.DocumentChunk;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reuses answers across paraphrased questions, so the LLM is only called for questions it has not effectively
+ * answered before.
+ * <p>
+ * An answer is reused when the new question's embedding has a cosine similarity of at least
+ * {@code docs.ai.answer-cache.similarity-threshold} with a cached question <em>and</em> retrieval returned exactly
+ * the same chunks, in the same order, so the LLM would have seen the same context. Every entry records the
+ * {@link VectorStore#version()} it was built against; once the store publishes new content the whole cache is
+ * dropped. Lookups scan all entries, which is cheap at the configured sizes compared with one LLM call.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SemanticAnswerCache {
+
+    private final AiProperties properties;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final Map<Long, Entry> entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+            if (size() > maxEntries()) {
+                evictions.incrementAndGet();
+                return true;
+            }
+            return false;
+        }
+    };
+    private long nextKey;
+    private long storeVersion = -1L;
+
+    /**
+     * Returns a cached answer for a question close enough to this one that retrieved the same chunks
+     * from the same store version, or {@code null}. Questions without an embedding are never matched.
+     */
+    public AiResponse get(float[] queryEmbedding, List<DocumentChunk> retrieved, long version) {
+        AiProperties.AnswerCache config = properties.getAnswerCache();
+        if (!config.isEnabled() || queryEmbedding == null) {
+            return null;
+        }
+        float[] unitQuery = VectorSlab.normalize(queryEmbedding);
+        List<String> chunkIds = chunkIds(retrieved);
+
+        synchronized (entries) {
+            invalidateIfStale(version);
+            Long bestKey = null;
+            float bestScore = (float) config.getSimilarityThreshold();
+            for (Map.Entry<Long, Entry> candidate : entries.entrySet()) {
+                Entry entry = candidate.getValue();
+                if (entry.unitQuery().length != unitQuery.length || !entry.chunkIds().equals(chunkIds)) {
+                    continue;
+                }
+                float score = ScalarKernel.INSTANCE.dot(entry.unitQuery(), 0, unitQuery, 0, unitQuery.length);
+                if (score >= bestScore) {
+                    bestScore = score;
+                    bestKey = candidate.getKey();
+                }
+            }
+            if (bestKey != null) {
+                hits.incrementAndGet();
+                log.debug("Answer cache hit with similarity {}.", bestScore);
+                return entries.get(bestKey).response();
+            }
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    public void put(float[] queryEmbedding, List<DocumentChunk> retrieved, long version, AiResponse response) {
+        if (!properties.getAnswerCache().isEnabled() || queryEmbedding == null) {
+            return;
+        }
+        Entry entry = new Entry(VectorSlab.normalize(queryEmbedding), chunkIds(retrieved), response);
+        synchronized (entries) {
+            invalidateIfStale(version);
+            entries.put(nextKey++, entry);
+        }
+    }
+
+    public CacheStats stats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return new CacheStats(size, maxEntries(), hits.get(), misses.get(), evictions.get());
+    }
+
+    private void invalidateIfStale(long version) {
+        if (version != storeVersion) {
+            if (!entries.isEmpty()) {
+                log.info("Vector store changed (version {} -> {}); dropping {} cached answers.", storeVersion, version, entries.size());
+            }
+            entries.clear();
+            storeVersion = version;
+        }
+    }
+
+    private int maxEntries() {
+        return Math.max(1, properties.getAnswerCache().getMaxEntries());
+    }
+
+    private static List<String> chunkIds(List<DocumentChunk> chunks) {
+        return chunks.stream().map(DocumentChunk::id).toList();
+    }
+
+    private record Entry(float[] unitQuery, List<String> chunkIds, AiResponse response) {}
+}
@@ -0,0 +1,53 @@
+package com.cloud.docs.ai.service;
+
+import com.cloud.docs.ai.model.CoalescingStats;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent calls for the same key into one computation: the first caller starts it, and callers that
+ * arrive while it is still running share its future, completing with the same result or exception. Nothing is
+ * cached; once the computation finishes, the next call for the key starts a new one.
+ */
+class SingleFlight<K, V> {
+
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong executed = new AtomicLong();
+    private final AtomicLong collapsed = new AtomicLong();
+
+    CompletableFuture<V> execute(K key, Supplier<CompletableFuture<V>> computation) {
+        CompletableFuture<V> shared = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, shared);
+        if (running != null) {
+            collapsed.incrementAndGet();
+            return running;
+        }
+
+        executed.incrementAndGet();
+        CompletableFuture<V> started;
+        try {
+            started = computation.get();
+        } catch (RuntimeException e) {
+            started = CompletableFuture.failedFuture(e);
+        }
+        started.whenComplete((result, error) -> {
+            // Leave the map first, so a caller arriving after completion starts a fresh computation
+            inFlight.remove(key, shared);
+            if (error != null) {
+                shared.completeExceptionally(error instanceof CompletionException && error.getCause() != null ? error.getCause() : error);
+            } else {
+                shared.complete(result);
+            }
+        });
+        return shared;
+    }
+
+    CoalescingStats stats() {
+        return new CoalescingStats(executed.get(), collapsed.get(), inFlight.size());
+    }
+}
@@ -0,0 +1,103 @@
+package com.cloud.docs.ai.service;
+
+import com.cloud.docs.ai.model.LatencyStats;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Records how long each stage of answering a question takes, so a slow answer can be attributed to embedding,
+ * search, prompt assembly or generation.
+ * <p>
+ * Each stage keeps its latest {@value #WINDOW} samples in a ring buffer; percentiles are computed over that window
+ * when stats are requested, while the count and mean cover everything since the last {@link #reset()}.
+ */
+@Component
+public class StageLatencyRecorder {
+
+    public enum Stage {
+        EMBED, SEARCH, ASSEMBLE, GENERATE
+    }
+
+    private static final int WINDOW = 10_000;
+
+    private final Map<Stage, Samples> samples = new EnumMap<>(Stage.class);
+
+    public StageLatencyRecorder() {
+        for (Stage stage : Stage.values()) {
+            samples.put(stage, new Samples());
+        }
+    }
+
+    /**
+     * Runs the work and records its duration under the stage, whether it completes or throws.
+     */
+    public <T> T time(Stage stage, Supplier<T> work) {
+        long start = System.nanoTime();
+        try {
+            return work.get();
+        } finally {
+            record(stage, System.nanoTime() - start);
+        }
+    }
+
+    public void record(Stage stage, long nanos) {
+        samples.get(stage).add(nanos);
+    }
+
+    public Map<Stage, LatencyStats> stats() {
+        Map<Stage, LatencyStats> stats = new EnumMap<>(Stage.class);
+        samples.forEach((stage, stageSamples) -> stats.put(stage, stageSamples.stats()));
+        return stats;
+    }
+
+    public void reset() {
+        samples.values().forEach(Samples::reset);
+    }
+
+    private static final class Samples {
+
+        private final long[] window = new long[WINDOW];
+        private long count;
+        private long totalNanos;
+
+        synchronized void add(long nanos) {
+            window[(int) (count % WINDOW)] = nanos;
+            count++;
+            totalNanos += nanos;
+        }
+
+        synchronized void reset() {
+            count = 0;
+            totalNanos = 0;
+        }
+
+        LatencyStats stats() {
+            long[] sorted;
+            long total;
+            long recorded;
+            synchronized (this) {
+                recorded = count;
+                total = totalNanos;
+                sorted = Arrays.copyOf(window, (int) Math.min(count, WINDOW));
+            }
+            if (sorted.length == 0) {
+                return new LatencyStats(0, 0.0, 0.0, 0.0, 0.0, 0.0);
+            }
+            Arrays.sort(sorted);
+            return new LatencyStats(recorded, millis(total / (double) recorded), millis(percentile(sorted, 0.50)),
+                    millis(percentile(sorted, 0.95)), millis(percentile(sorted, 0.99)), millis(sorted[sorted.length - 1]));
+        }
+
+        private static long percentile(long[] sorted, double quantile) {
+            return sorted[(int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1)];
+        }
+
+        private static double millis(double nanos) {
+            return nanos / 1_000_000.0;
+        }
+    }
+}
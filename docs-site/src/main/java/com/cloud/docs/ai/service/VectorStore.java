@@ -1,74 +1,549 @@
 package com.cloud.docs.ai.service;
 
+import com.cloud.docs.ai.config.AiProperties;
+import com.cloud.docs.ai.index.BinaryQuantizedIndex;
+import com.cloud.docs.ai.index.BruteForceIndex;
+import com.cloud.docs.ai.index.HnswIndex;
+import com.cloud.docs.ai.index.IndexEvaluation;
+import com.cloud.docs.ai.index.Int8QuantizedIndex;
+import com.cloud.docs.ai.index.MatryoshkaIndex;
+import com.cloud.docs.ai.index.PartitionedScan;
+import com.cloud.docs.ai.index.RecallReport;
+import com.cloud.docs.ai.index.ReciprocalRankFusion;
+import com.cloud.docs.ai.index.RowScorer;
+import com.cloud.docs.ai.index.ScalarKernel;
+import com.cloud.docs.ai.index.SimilarityKernel;
+import com.cloud.docs.ai.index.VectorApiKernel;
+import com.cloud.docs.ai.index.VectorIndex;
+import com.cloud.docs.ai.index.VectorSlab;
 import com.cloud.docs.ai.model.DocumentChunk;
+import com.cloud.docs.ai.model.SearchScope;
+import com.cloud.docs.search.Bm25Index;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
-import java.util.Comparator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * An in-memory vector store for DocumentChunks.
- * Provides functionality to add documents and search for the most similar ones.
+ * Provides functionality to bulk-load documents and search for the most similar ones.
+ * <p>
+ * All vectors live in a single contiguous {@link VectorSlab}, normalized at insert time, and the chunks' text and
+ * metadata in a column-wise {@link ChunkTable} that shares each source document's metadata between its chunks, so
+ * each vector and each title or URL is held exactly once. Searches are answered by the
+ * {@link VectorIndex} selected with {@code docs.ai.index.type}; brute force remains available as the exact reference.
+ * Similarities are computed by a {@link SimilarityKernel} that can be switched at runtime. A {@link Bm25Index} over the
+ * same rows backs keyword and hybrid retrieval.
+ * <p>
+ * Every snapshot also partitions its rows by the {@link SearchScope#FIELDS} metadata ({@code type}, {@code apiId},
+ * {@code hubName}). A scoped search only scores the rows of the matching partitions, exactly, instead of searching
+ * everything and filtering afterwards: a partition is one API or hub, small enough that an exact scan over it is
+ * both cheaper than the global index and free of its approximation.
+ * <p>
+ * Loading goes through a {@link Builder}: chunks are appended to the builder's private, growable slab and index,
+ * and {@link Builder#publish()} swaps the finished result in as an immutable snapshot with one volatile write.
+ * Searches read whichever snapshot is current and never take a lock, so they neither wait for an ingest nor see
+ * a half-loaded index; until the first publish the store is simply empty.
  */
 @Component
+@RequiredArgsConstructor
 @Slf4j
 public class VectorStore {
 
-    private final List<DocumentChunk> documents = new CopyOnWriteArrayList<>();
+    private static final int EVALUATION_WARMUP_QUERIES = 20;
 
-    public void addDocument(DocumentChunk chunk) {
-        documents.add(chunk);
+    private final AiProperties properties;
+
+    private ForkJoinPool searchPool;
+    private volatile SimilarityKernel kernel;
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    @PostConstruct
+    public void startSearchPool() {
+        searchPool = new ForkJoinPool(Math.max(1, properties.getIndex().getExact().getParallelism()));
+        kernel = createKernel(properties.getIndex().getKernel());
+        log.info("VectorStore using similarity kernel {}.", kernel.name());
+        if (properties.getIndex().getType() == AiProperties.IndexType.MATRYOSHKA) {
+            // Refuse a bad prefix at startup instead of failing the first ingest
+            MatryoshkaIndex.checkPrefixDimensions(properties.getIndex().getMatryoshka().getPrefixDimensions(),
+                    properties.getEmbedding().getDimensions());
+        }
+    }
+
+    @PreDestroy
+    public void stopSearchPool() {
+        searchPool.shutdown();
+    }
+
+    /**
+     * Starts a bulk load. The current contents stay searchable until the builder is published.
+     */
+    public Builder newBuilder() {
+        return new Builder();
     }
 
     public int size() {
-        return documents.size();
+        return snapshot.chunks().size();
+    }
+
+    /**
+     * Incremented every time a builder is published, so anything derived from search results can tell it is stale.
+     */
+    public long version() {
+        return snapshot.version();
+    }
+
+    public List<DocumentChunk> search(float[] queryEmbedding, int k) {
+        return search(queryEmbedding, k, SearchScope.ALL);
+    }
+
+    /**
+     * Vector search restricted to the chunks matching the scope.
+     */
+    public List<DocumentChunk> search(float[] queryEmbedding, int k, SearchScope scope) {
+        Snapshot current = snapshot;
+        return chunks(current, vectorRows(current, queryEmbedding, k, scopedRows(current, scope)));
+    }
+
+    /**
+     * Hybrid retrieval: BM25 keyword search over chunk text and metadata, fused with vector search by reciprocal
+     * rank fusion. Keyword search catches exact identifiers (operationIds, error codes, field names) that cosine
+     * similarity misses. Without a query embedding, e.g. because the embedding endpoint is down, the keyword
+     * results are returned alone.
+     *
+     * @param queryEmbedding The embedded question, or {@code null} if it could not be embedded.
+     * @param scope          Restricts both retrievers to the matching chunks.
+     */
+    public List<DocumentChunk> hybridSearch(String queryText, float[] queryEmbedding, int k, SearchScope scope) {
+        AiProperties.Retrieval config = properties.getRetrieval();
+        Snapshot current = snapshot;
+        int[] scopedRows = scopedRows(current, scope);
+        if (queryEmbedding == null) {
+            return chunks(current, current.lexicalIndex().search(queryText, k, scopedRows));
+        }
+        if (!config.isHybrid()) {
+            return chunks(current, vectorRows(current, queryEmbedding, k, scopedRows));
+        }
+
+        int candidates = Math.max(k, config.getCandidatesPerRetriever());
+        int[] vectorRows = vectorRows(current, queryEmbedding, candidates, scopedRows);
+        int[] lexicalRows = current.lexicalIndex().search(queryText, candidates, scopedRows);
+        return chunks(current, ReciprocalRankFusion.fuse(k, config.getRrfRankConstant(), vectorRows, lexicalRows));
+    }
+
+    /**
+     * Returns the name of the similarity kernel currently in use.
+     */
+    public String getKernelName() {
+        return kernel.name();
+    }
+
+    /**
+     * Switches the similarity kernel for all subsequent searches, e.g. to compare the SIMD and scalar
+     * implementations on live traffic. Each search reads the kernel once (see {@link VectorSlab#scorer(float[])}),
+     * so searches already running finish on the kernel they started with.
+     *
+     * @return The name of the kernel now in use.
+     * @throws IllegalStateException if the Vector API kernel is requested but {@code jdk.incubator.vector} is not
+     *                               enabled; the current kernel is then kept.
+     */
+    public synchronized String switchKernel(AiProperties.KernelType type) {
+        if (type == AiProperties.KernelType.VECTOR_API && !SimilarityKernel.isVectorApiAvailable()) {
+            throw new IllegalStateException("The Vector API kernel is not available; start the JVM with "
+                    + "--add-modules jdk.incubator.vector. Still using " + kernel.name() + ".");
+        }
+        SimilarityKernel newKernel = createKernel(type);
+        kernel = newKernel;
+        Snapshot current = snapshot;
+        if (current.slab() != null) {
+            current.slab().setKernel(newKernel);
+        }
+        log.info("VectorStore switched to similarity kernel {}.", newKernel.name());
+        return newKernel.name();
     }
 
-    public void clear() {
-        documents.clear();
-        log.info("VectorStore cleared.");
+    /**
+     * Measures the configured index against exact brute-force search, using a fixed sample of stored chunks
+     * as queries. For the brute-force index itself this trivially reports a recall of 1.
+     *
+     * @param sampleSize The maximum number of stored chunks to use as queries.
+     * @param k          The number of neighbours to compare per query.
+     */
+    public RecallReport measureRecall(int sampleSize, int k) {
+        Snapshot current = snapshot;
+        VectorSlab slab = current.slab();
+        if (slab == null || slab.size() == 0 || sampleSize <= 0 || k <= 0) {
+            return new RecallReport(current.index() != null ? current.index().name() : "none", 0, k, 0.0);
+        }
+
+        BruteForceIndex exact = createExactIndex(slab);
+        int[] sample = sampleRows(slab.size(), sampleSize);
+        double recallSum = 0.0;
+        for (int row : sample) {
+            float[] query = slab.vector(row);
+            int[] expected = exact.search(query, k);
+            int[] actual = current.index().search(query, k);
+            recallSum += overlap(expected, actual) / (double) expected.length;
+        }
+        return new RecallReport(current.index().name(), sample.length, k, recallSum / sample.length);
     }
 
-    public List<DocumentChunk> search(List<Double> queryEmbedding, int k) {
-        if (queryEmbedding == null || queryEmbedding.isEmpty()) {
+    /**
+     * Builds each index type over the current vectors and measures it against exact brute-force search: recall@k,
+     * single-query latency, back-to-back throughput and memory per vector. The variants are built on the side and
+     * discarded; live searches keep using the published index. All variants answer the same queries, after a short
+     * warm-up.
+     *
+     * @param queries    Query embeddings; when empty, up to {@code sampleSize} stored vectors are used as queries.
+     * @param sampleSize The maximum number of stored vectors to sample when no queries are given.
+     * @param k          The number of neighbours to compare per query.
+     */
+    public List<IndexEvaluation> evaluateIndexes(List<float[]> queries, int sampleSize, int k,
+                                                 List<AiProperties.IndexType> types) {
+        VectorSlab slab = snapshot.slab();
+        if (slab == null || slab.size() == 0 || k <= 0) {
             return List.of();
         }
+        List<float[]> queryVectors = new ArrayList<>();
+        for (float[] query : queries) {
+            if (query.length == slab.dimension()) {
+                queryVectors.add(query);
+            } else {
+                log.warn("Skipping an evaluation query of dimension {}; the store has dimension {}.", query.length, slab.dimension());
+            }
+        }
+        if (queries.isEmpty()) {
+            for (int row : sampleRows(slab.size(), sampleSize)) {
+                queryVectors.add(slab.vector(row));
+            }
+        }
+        if (queryVectors.isEmpty()) {
+            return List.of();
+        }
+
+        BruteForceIndex exact = createExactIndex(slab);
+        int[][] expected = new int[queryVectors.size()][];
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] = exact.search(queryVectors.get(i), k);
+        }
+
+        List<IndexEvaluation> evaluations = new ArrayList<>(types.size());
+        for (AiProperties.IndexType type : types) {
+            long buildStart = System.nanoTime();
+            VectorIndex index = createIndex(slab, type);
+            for (int row = 0; row < slab.size(); row++) {
+                index.add(row);
+            }
+            index.optimize();
+            double buildMillis = (System.nanoTime() - buildStart) / 1_000_000.0;
+
+            for (int i = 0; i < Math.min(EVALUATION_WARMUP_QUERIES, queryVectors.size()); i++) {
+                index.search(queryVectors.get(i), k);
+            }
+            long[] latencies = new long[queryVectors.size()];
+            long totalNanos = 0L;
+            double recallSum = 0.0;
+            for (int i = 0; i < latencies.length; i++) {
+                long start = System.nanoTime();
+                int[] actual = index.search(queryVectors.get(i), k);
+                latencies[i] = System.nanoTime() - start;
+                totalNanos += latencies[i];
+                recallSum += expected[i].length == 0 ? 1.0 : overlap(expected[i], actual) / (double) expected[i].length;
+            }
+            Arrays.sort(latencies);
+            evaluations.add(new IndexEvaluation(type.name(), index.name(), latencies.length, k, recallSum / latencies.length,
+                    buildMillis, micros(latencies, 0.50), micros(latencies, 0.95), micros(latencies, 0.99),
+                    micros(latencies, 1.0), latencies.length / Math.max(totalNanos / 1e9, 1e-9),
+                    index.bytesPerVector(), slab.heapBytesPerRow() + index.bytesPerVector()));
+            log.info("Evaluated index {}: recall@{}={}, p50={}us, p99={}us.", index.name(), k,
+                    String.format("%.3f", recallSum / latencies.length), String.format("%.1f", micros(latencies, 0.50)),
+                    String.format("%.1f", micros(latencies, 0.99)));
+        }
+        return evaluations;
+    }
+
+    /**
+     * The dimension of the stored vectors, or 0 while the store is empty.
+     */
+    public int dimension() {
+        VectorSlab slab = snapshot.slab();
+        return slab != null ? slab.dimension() : 0;
+    }
+
+    /**
+     * Accumulates chunks for a bulk load. Safe to feed from several ingest threads at once; appends go to a
+     * private slab and index that no reader can see, so there is no copy-on-write and no lock shared with searches.
+     * A builder can be published once.
+     * <p>
+     * The builder remembers the snapshot that was current when it was created. Chunks still present there can be
+     * carried over with {@link #reuse(DocumentChunk)} instead of being embedded again; chunks that are not carried
+     * over or added are dropped when the builder is published.
+     */
+    public final class Builder {
+
+        private final Snapshot base = snapshot;
+        private final ChunkTable.Builder chunks = new ChunkTable.Builder();
+        private final Bm25Index.Builder lexicalIndex = new Bm25Index.Builder();
+        private VectorSlab slab;
+        private VectorIndex index;
+        private int reused;
+        private boolean published;
+
+        private Builder() {
+        }
+
+        public synchronized void add(DocumentChunk chunk) {
+            float[] embedding = chunk.embedding();
+            if (embedding == null || embedding.length == 0) {
+                log.warn("Skipping chunk {} because it has no embedding.", chunk.id());
+                return;
+            }
+            append(chunk, embedding);
+        }
+
+        public void addAll(List<DocumentChunk> chunks) {
+            chunks.forEach(this::add);
+        }
+
+        /**
+         * Carries a chunk over from the snapshot this builder started from, reusing its stored vector.
+         * The chunk's metadata is taken from the argument, so renamed titles or breadcrumbs are picked up.
+         *
+         * @return {@code false} if the store did not hold a chunk with this ID, in which case it must be embedded.
+         */
+        public synchronized boolean reuse(DocumentChunk chunk) {
+            Integer row = base.rowsById().get(chunk.id());
+            if (row == null) {
+                return false;
+            }
+            append(chunk, base.slab().vector(row));
+            reused++;
+            return true;
+        }
+
+        private void append(DocumentChunk chunk, float[] embedding) {
+            if (published) {
+                throw new IllegalStateException("This VectorStore builder has already been published.");
+            }
+            if (slab == null) {
+                slab = new VectorSlab(embedding.length, kernel, properties.getIndex().useOffHeapVectors());
+                index = createIndex(slab);
+                log.info("VectorStore builder created with dimension {} and index {}.", embedding.length, index.name());
+            }
+            int row = slab.append(embedding);
+            index.add(row);
+            lexicalIndex.add(row, lexicalText(chunk));
+            chunks.add(chunk);
+        }
+
+        /**
+         * Number of chunks added or reused so far.
+         */
+        public synchronized int size() {
+            return chunks.size();
+        }
+
+        /**
+         * Lets the index retrain on everything added, then makes the result the store's searchable snapshot.
+         */
+        public synchronized void publish() {
+            if (published) {
+                throw new IllegalStateException("This VectorStore builder has already been published.");
+            }
+            published = true;
+            if (index != null) {
+                long startTime = System.currentTimeMillis();
+                index.optimize();
+                log.info("VectorStore index {} optimized in {}ms.", index.name(), System.currentTimeMillis() - startTime);
+            }
+            synchronized (VectorStore.this) {
+                if (slab != null) {
+                    // Pick up a kernel switch that happened while this builder was loading
+                    slab.setKernel(kernel);
+                }
+                snapshot = Snapshot.of(chunks.build(), slab, index, lexicalIndex.build(), snapshot.version() + 1);
+            }
+            ChunkTable table = snapshot.chunks();
+            log.info("VectorStore published {} document chunks from {} sources ({} reused, {} new, {} removed).",
+                    table.size(), table.sourceCount(), reused, table.size() - reused, base.chunks().size() - reused);
+        }
+    }
+
+    /**
+     * What searches read: never modified once published.
+     *
+     * @param partitions The ascending rows of every {@link SearchScope#FIELDS} value, keyed by {@link #partitionKey}.
+     */
+    private record Snapshot(ChunkTable chunks, Map<String, Integer> rowsById, Map<String, int[]> partitions,
+                            VectorSlab slab, VectorIndex index, Bm25Index lexicalIndex, long version) {
+        static final Snapshot EMPTY = new Snapshot(ChunkTable.EMPTY, Map.of(), Map.of(), null, null, Bm25Index.empty(), 0L);
+
+        static Snapshot of(ChunkTable chunks, VectorSlab slab, VectorIndex index, Bm25Index lexicalIndex, long version) {
+            Map<String, Integer> rowsById = new HashMap<>();
+            Map<String, List<Integer>> partitionRows = new HashMap<>();
+            for (int row = 0; row < chunks.size(); row++) {
+                rowsById.putIfAbsent(chunks.id(row), row);
+                Map<String, String> sourceMetadata = chunks.source(row).metadata();
+                for (String field : SearchScope.FIELDS) {
+                    String value = sourceMetadata.get(field);
+                    if (value != null) {
+                        partitionRows.computeIfAbsent(partitionKey(field, value), key -> new ArrayList<>()).add(row);
+                    }
+                }
+            }
+            Map<String, int[]> partitions = new HashMap<>();
+            partitionRows.forEach((key, rows) -> partitions.put(key, rows.stream().mapToInt(Integer::intValue).toArray()));
+            return new Snapshot(chunks, rowsById, partitions, slab, index, lexicalIndex, version);
+        }
+    }
+
+    private static String partitionKey(String field, String value) {
+        return field + '=' + value;
+    }
+
+    /**
+     * The ascending rows matching every filter of the scope, or {@code null} if it does not filter at all.
+     */
+    private static int[] scopedRows(Snapshot current, SearchScope scope) {
+        int[] rows = null;
+        for (Map.Entry<String, String> filter : Objects.requireNonNullElse(scope, SearchScope.ALL).filters().entrySet()) {
+            int[] partition = current.partitions().getOrDefault(partitionKey(filter.getKey(), filter.getValue()), new int[0]);
+            rows = rows == null ? partition : intersect(rows, partition);
+        }
+        return rows;
+    }
+
+    private static int[] intersect(int[] a, int[] b) {
+        int[] result = new int[Math.min(a.length, b.length)];
+        int size = 0;
+        for (int i = 0, j = 0; i < a.length && j < b.length; ) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                result[size++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, size);
+    }
 
-        return documents.stream()
-                .map(chunk -> {
-                    double similarity = cosineSimilarity(queryEmbedding, chunk.embedding());
-                    return new SimilarityResult(chunk, similarity);
-                })
-                .sorted(Comparator.comparingDouble(SimilarityResult::similarity).reversed())
-                .limit(k)
-                .map(SimilarityResult::chunk)
-                .collect(Collectors.toList());
+    /**
+     * What the keyword index sees of a chunk: its text plus metadata such as title, breadcrumb and operationId.
+     */
+    private static String lexicalText(DocumentChunk chunk) {
+        return chunk.content() + " " + String.join(" ", chunk.metadata().values());
     }
 
-    private double cosineSimilarity(List<Double> vectorA, List<Double> vectorB) {
-        if (vectorA == null || vectorB == null || vectorA.size() != vectorB.size() || vectorA.isEmpty()) {
-            return 0.0;
+    /**
+     * @param scopedRows The rows to search, from {@link #scopedRows}, or {@code null} to use the index over all rows.
+     */
+    private int[] vectorRows(Snapshot current, float[] queryEmbedding, int k, int[] scopedRows) {
+        if (queryEmbedding == null || queryEmbedding.length == 0 || current.slab() == null) {
+            return new int[0];
+        }
+        if (queryEmbedding.length != current.slab().dimension()) {
+            log.warn("Query dimension {} does not match the store dimension {}.", queryEmbedding.length, current.slab().dimension());
+            return new int[0];
+        }
+        if (scopedRows == null) {
+            return current.index().search(queryEmbedding, k);
         }
 
-        double dotProduct = 0.0;
-        double normA = 0.0;
-        double normB = 0.0;
+        // Exact scan over the partition only; positions in scopedRows are mapped back to rows
+        VectorSlab slab = current.slab();
+        RowScorer exact = slab.scorer(VectorSlab.normalize(queryEmbedding));
+        int[] positions = PartitionedScan.topK(searchPool, scopedRows.length, k,
+                properties.getIndex().getExact().getPartitionSize(), position -> exact.score(scopedRows[position]));
+        int[] rows = new int[positions.length];
+        for (int i = 0; i < positions.length; i++) {
+            rows[i] = scopedRows[positions[i]];
+        }
+        return rows;
+    }
 
-        for (int i = 0; i < vectorA.size(); i++) {
-            dotProduct += vectorA.get(i) * vectorB.get(i);
-            normA += Math.pow(vectorA.get(i), 2);
-            normB += Math.pow(vectorB.get(i), 2);
+    private static List<DocumentChunk> chunks(Snapshot current, int[] rows) {
+        List<DocumentChunk> results = new ArrayList<>(rows.length);
+        for (int row : rows) {
+            results.add(current.chunks().chunk(row));
         }
+        return results;
+    }
 
-        if (normA == 0.0 || normB == 0.0) {
-            return 0.0;
+    private VectorIndex createIndex(VectorSlab slab) {
+        return createIndex(slab, properties.getIndex().getType());
+    }
+
+    private VectorIndex createIndex(VectorSlab slab, AiProperties.IndexType type) {
+        AiProperties.Index config = properties.getIndex();
+        return switch (type) {
+            case BRUTE_FORCE -> createExactIndex(slab);
+            case HNSW -> new HnswIndex(slab, config.getHnsw().getM(), config.getHnsw().getEfConstruction(),
+                    config.getHnsw().getEfSearch(), config.getHnsw().getSeed());
+            case INT8 -> new Int8QuantizedIndex(slab, searchPool, config.getExact().getPartitionSize(),
+                    config.getQuantization().getRescoreMultiplier());
+            case BINARY -> new BinaryQuantizedIndex(slab, searchPool, config.getExact().getPartitionSize(),
+                    config.getQuantization().getBinaryRescoreMultiplier());
+            case MATRYOSHKA -> new MatryoshkaIndex(slab, searchPool, config.getExact().getPartitionSize(),
+                    config.getMatryoshka().getPrefixDimensions(), config.getMatryoshka().getRescoreMultiplier());
+        };
+    }
+
+    private SimilarityKernel createKernel(AiProperties.KernelType type) {
+        return switch (type) {
+            case SCALAR -> ScalarKernel.INSTANCE;
+            case VECTOR_API -> {
+                if (SimilarityKernel.isVectorApiAvailable()) {
+                    yield new VectorApiKernel();
+                }
+                log.warn("The Vector API kernel was requested but jdk.incubator.vector is not enabled "
+                        + "(start the JVM with --add-modules jdk.incubator.vector). Using the scalar kernel.");
+                yield ScalarKernel.INSTANCE;
+            }
+            case AUTO -> SimilarityKernel.isVectorApiAvailable() ? new VectorApiKernel() : ScalarKernel.INSTANCE;
+        };
+    }
+
+    private BruteForceIndex createExactIndex(VectorSlab slab) {
+        return new BruteForceIndex(slab, searchPool, properties.getIndex().getExact().getPartitionSize());
+    }
+
+    private static int[] sampleRows(int size, int sampleSize) {
+        if (sampleSize >= size) {
+            int[] all = new int[size];
+            Arrays.setAll(all, i -> i);
+            return all;
         }
+        return new Random(size).ints(0, size).distinct().limit(sampleSize).toArray();
+    }
 
-        return dotProduct / (Math.sqrt(normA) * Math.sqrt(normB));
+    private static double micros(long[] sortedNanos, double quantile) {
+        int index = (int) Math.min(sortedNanos.length - 1, Math.max(0, Math.ceil(quantile * sortedNanos.length) - 1));
+        return sortedNanos[index] / 1_000.0;
     }
 
-    private record SimilarityResult(DocumentChunk chunk, double similarity) {}
-}
\ No newline at end of file
+    private static int overlap(int[] expected, int[] actual) {
+        int matches = 0;
+        for (int row : actual) {
+            for (int candidate : expected) {
+                if (candidate == row) {
+                    matches++;
+                    break;
+                }
+            }
+        }
+        return matches;
+    }
+}
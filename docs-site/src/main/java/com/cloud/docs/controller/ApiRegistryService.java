@@ -9,24 +9,31 @@ import java.util.stream.Collectors;
 @Service
 public class ApiRegistryService {
 
-    private final List<ApiSpecification> specifications;
-    private final Map<String, ApiSpecification> specsById;
+    private volatile List<ApiSpecification> specifications;
+    private volatile Map<String, ApiSpecification> specsById;
 
     public ApiRegistryService(List<ApiSpecification> loadedSpecifications) {
+        reload(loadedSpecifications);
+    }
+
+    /**
+     * Replaces the loaded specifications, e.g. with a fresh {@link ApiSpecificationLoader#loadAll()}.
+     */
+    public synchronized void reload(List<ApiSpecification> loadedSpecifications) {
         // Sort specs for a predictable order in the UI
         loadedSpecifications.sort(Comparator.comparing(ApiSpecification::title)
                 .thenComparing(ApiSpecification::version));
 
-        this.specifications = Collections.unmodifiableList(loadedSpecifications);
-
         // Create a map for quick lookups by the unique ID
-        this.specsById = this.specifications.stream()
+        this.specsById = loadedSpecifications.stream()
                 .collect(Collectors.toMap(
                         ApiSpecification::id,
                         spec -> spec,
                         (s1, s2) -> s1, // In case of ID collision, take the first one
                         LinkedHashMap::new
                 ));
+
+        this.specifications = Collections.unmodifiableList(loadedSpecifications);
     }
 
     /**
@@ -25,11 +25,20 @@ import java.util.concurrent.ConcurrentHashMap;
 public class DocsHubRegistry {
 
     private final Parser markdownParser;
-    private final Map<String, DocsHubService> hubs = new ConcurrentHashMap<>();
+    private volatile Map<String, DocsHubService> hubs = new ConcurrentHashMap<>();
 
     @PostConstruct
     public void initialize() {
         log.info("Initializing Docs Hub Registry: Scanning for documentation hubs...");
+        reload();
+    }
+
+    /**
+     * Re-scans the classpath and replaces all hubs at once, so readers see either the old or the new set.
+     * If the scan fails, the hubs loaded before are kept.
+     */
+    public synchronized void reload() {
+        Map<String, DocsHubService> scanned = new ConcurrentHashMap<>();
         PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver();
         try {
             // Scan for directories directly under `classpath:docs/`
@@ -41,13 +50,15 @@ public class DocsHubRegistry {
                         log.info("Discovered documentation hub: {}", hubName);
                         DocsHubService hubService = new DocsHubService(hubName, markdownParser);
                         hubService.initialize(); // Load content for this hub
-                        hubs.put(hubName, hubService);
+                        scanned.put(hubName, hubService);
                     }
                 }
             }
         } catch (IOException e) {
             log.error("Failed to scan for documentation hubs.", e);
+            return;
         }
+        hubs = scanned;
         log.info("Docs Hub Registry initialized with {} hub(s).", hubs.size());
     }
 
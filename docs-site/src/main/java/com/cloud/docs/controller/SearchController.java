@@ -4,8 +4,11 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 
+import java.util.List;
+
 @Controller
 @RequiredArgsConstructor
 public class SearchController {
@@ -13,14 +16,13 @@ public class SearchController {
     private final SearchIndexService searchIndexService;
 
     /**
-     * This endpoint now returns the pre-cached JSON string directly.
-     * This is extremely fast as it avoids serialization on every request.
+     * Ranks the documentation against the query on the server and returns the top hits with snippets, so the
+     * browser downloads results rather than the whole search corpus.
      */
-    @GetMapping(value = "/search-index", produces = MediaType.APPLICATION_JSON_VALUE)
-    @ResponseBody // Ensures the String is written directly to the response body
-    public String getSearchIndex() {
-        // FIX: Removed the brittle string replacement.
-        // The cached string is now guaranteed to be valid JSON.
-        return searchIndexService.getSearchIndexJson();
+    @GetMapping(value = "/search", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public List<SearchResult> search(@RequestParam("q") String query,
+                                     @RequestParam(value = "limit", defaultValue = "15") int limit) {
+        return searchIndexService.search(query, limit);
     }
 }
\ No newline at end of file
@@ -1,7 +1,8 @@
 package com.cloud.docs.controller;
 
 /**
- * A record representing a single item in the search index.
+ * A record representing a single item in the search index. Items stay on the server; searches return
+ * {@link SearchResult}s with a snippet of the content instead.
  *
  * @param title      The main title of the search result (e.g., an endpoint summary or article title).
  * @param breadcrumb A navigation path to show context (e.g., "API Name → Tag" or "Hub Name").
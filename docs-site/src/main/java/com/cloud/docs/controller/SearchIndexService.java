@@ -1,13 +1,12 @@
 package com.cloud.docs.controller;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.cloud.docs.search.Bm25Index;
+import com.cloud.docs.search.TextTokenizer;
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.Operation;
 import io.swagger.v3.oas.models.media.Schema;
 import io.swagger.v3.oas.models.parameters.RequestBody;
 import jakarta.annotation.PostConstruct;
-import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.commonmark.node.Node;
@@ -18,22 +17,33 @@ import org.springframework.stereotype.Service;
 
 import java.util.*;
 
+/**
+ * Indexes every API operation and docs hub article at startup and answers searches on the server.
+ * <p>
+ * Items are kept in a BM25 inverted index, so a search touches only the postings of its own words and the browser
+ * downloads the top results with a short snippet each instead of the whole corpus. Words are split like the AI
+ * assistant's keyword search (see {@link TextTokenizer}), so operation IDs and error codes match whole or by part.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class SearchIndexService {
 
     private static final int MAX_RECURSION_DEPTH = 20;
+    private static final int MAX_RESULTS = 50;
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MAX_PREFIX_EXPANSIONS = 20;
+    private static final int SNIPPET_LEAD_CHARS = 40;
+    private static final int SNIPPET_CHARS = 160;
 
     private final ApiRegistryService apiRegistry;
     private final DocsHubRegistry docsHubRegistry;
     private final SnippetService snippetService;
     private final Parser markdownParser;
     private final HtmlRenderer htmlRenderer;
-    // REMOVED: No longer injecting a potentially ambiguous ObjectMapper.
 
-    @Getter
-    private String searchIndexJson = "[]"; // Cache the final JSON string
+    private List<SearchHit> items = List.of();
+    private Bm25Index index = Bm25Index.empty();
 
     @PostConstruct
     public void buildIndex() {
@@ -87,18 +97,94 @@ public class SearchIndexService {
             log.error("A critical error occurred while building the search index list. The index may be incomplete.", t);
         }
 
-        // 3. Serialize the final list to a JSON string and cache it.
-        try {
-            // FIX: Use a dedicated, local ObjectMapper for JSON to avoid ambiguity with the YAMLMapper bean.
-            ObjectMapper jsonMapper = new ObjectMapper();
-            this.searchIndexJson = jsonMapper.writeValueAsString(hits);
-        } catch (Exception e) {
-            log.error("Failed to serialize search index to JSON string. Search will be unavailable.", e);
-            this.searchIndexJson = "[]"; // Keep it as an empty JSON array to prevent client errors.
+        // 3. Build the inverted index. The title is indexed twice so matches there outrank matches deep in the body.
+        Bm25Index.Builder builder = new Bm25Index.Builder();
+        for (int row = 0; row < hits.size(); row++) {
+            SearchHit hit = hits.get(row);
+            builder.add(row, hit.title() + " " + hit.title() + " " + hit.breadcrumb() + " " + hit.content());
         }
+        this.index = builder.build();
+        this.items = List.copyOf(hits);
 
         long endTime = System.currentTimeMillis();
-        log.info("Search index built and cached successfully in {}ms with {} items.", (endTime - startTime), hits.size());
+        log.info("Search index built successfully in {}ms with {} items.", (endTime - startTime), hits.size());
+    }
+
+    /**
+     * Returns the best-ranked items for the query, at most {@code limit} of them. The last word of the query also
+     * matches longer words starting with it, so results keep up while the user is still typing.
+     */
+    public List<SearchResult> search(String query, int limit) {
+        if (query == null || query.isBlank() || limit <= 0) {
+            return List.of();
+        }
+        Set<String> terms = new LinkedHashSet<>(TextTokenizer.tokenize(query));
+        String lastWord = trailingWord(query);
+        if (lastWord.length() >= MIN_PREFIX_LENGTH) {
+            terms.addAll(index.termsStartingWith(lastWord, MAX_PREFIX_EXPANSIONS));
+        }
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+
+        int[] rows = index.search(String.join(" ", terms), Math.min(limit, MAX_RESULTS));
+        List<SearchResult> results = new ArrayList<>(rows.length);
+        for (int row : rows) {
+            SearchHit hit = items.get(row);
+            results.add(new SearchResult(hit.title(), hit.breadcrumb(), hit.url(), snippet(hit.content(), terms)));
+        }
+        return results;
+    }
+
+    /**
+     * The word the query ends with, lower-cased, or an empty string if it ends with a space or punctuation.
+     */
+    private static String trailingWord(String query) {
+        int end = query.length();
+        int start = end;
+        while (start > 0 && isWordChar(query.charAt(start - 1))) {
+            start--;
+        }
+        return query.substring(start, end).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * About {@link #SNIPPET_CHARS} characters of the content, starting shortly before the first word that is one of
+     * the terms and cut at spaces.
+     */
+    private static String snippet(String content, Set<String> terms) {
+        if (content == null || content.isBlank()) {
+            return "";
+        }
+        int match = firstMatch(content, terms);
+        int start = match <= SNIPPET_LEAD_CHARS ? 0 : content.indexOf(' ', match - SNIPPET_LEAD_CHARS) + 1;
+        int end = Math.min(content.length(), start + SNIPPET_CHARS);
+        if (end < content.length()) {
+            int space = content.lastIndexOf(' ', end);
+            end = space > start ? space : end;
+        }
+        String snippet = content.substring(start, end).strip();
+        return (start > 0 ? "..." : "") + snippet + (end < content.length() ? "..." : "");
+    }
+
+    private static int firstMatch(String content, Set<String> terms) {
+        int start = -1;
+        for (int i = 0; i <= content.length(); i++) {
+            boolean wordChar = i < content.length() && isWordChar(content.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                if (terms.contains(content.substring(start, i).toLowerCase(Locale.ROOT))) {
+                    return start;
+                }
+                start = -1;
+            }
+        }
+        return 0;
+    }
+
+    private static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_';
     }
 
     private String renderMarkdownToPlainText(String markdown) {
@@ -0,0 +1,12 @@
+package com.cloud.docs.controller;
+
+/**
+ * A single ranked result of a documentation search, as returned by {@code /search}.
+ *
+ * @param title      The title of the matching operation or article.
+ * @param breadcrumb A navigation path to show context (e.g., "API Name → Tag" or "Hub Name").
+ * @param url        The direct URL to navigate to the item.
+ * @param snippet    A short plain-text excerpt around the first matching word, or the start of the item's text.
+ */
+public record SearchResult(String title, String breadcrumb, String url, String snippet) {
+}
@@ -0,0 +1,178 @@
+package com.cloud.docs.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An immutable in-memory inverted index over rows numbered from 0, scored with Okapi BM25. The AI assistant numbers
+ * them like its vector slab; the site search numbers its search items.
+ * <p>
+ * Each term maps to parallel arrays of rows and term frequencies, so a query only touches the postings of its own
+ * terms and accumulates into one {@code float[]} of row scores. At documentation scale that is well under a
+ * millisecond, and it needs no remote call, which makes it the fallback when the embedding endpoint is down.
+ * Terms come from {@link TextTokenizer}, so exact identifiers such as operationIds and error codes match.
+ */
+public class Bm25Index {
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+
+    private final Map<String, Postings> postings;
+    private final String[] sortedTerms;
+    private final int[] lengths;
+    private final float averageLength;
+
+    private Bm25Index(Map<String, Postings> postings, int[] lengths) {
+        this.postings = postings;
+        this.sortedTerms = postings.keySet().toArray(String[]::new);
+        Arrays.sort(sortedTerms);
+        this.lengths = lengths;
+        long total = 0;
+        for (int length : lengths) {
+            total += length;
+        }
+        this.averageLength = lengths.length == 0 ? 0.0f : Math.max(1.0f, (float) total / lengths.length);
+    }
+
+    public static Bm25Index empty() {
+        return new Builder().build();
+    }
+
+    public int size() {
+        return lengths.length;
+    }
+
+    /**
+     * Returns the rows with the highest BM25 score for the query, best first. Rows sharing no term with the
+     * query are never returned, so the result may hold fewer than {@code k} rows.
+     */
+    public int[] search(String query, int k) {
+        return search(query, k, null);
+    }
+
+    /**
+     * Like {@link #search(String, int)}, but only the given rows are candidates.
+     *
+     * @param rows The rows to rank, or {@code null} for all rows.
+     */
+    public int[] search(String query, int k, int[] rows) {
+        Set<String> terms = new LinkedHashSet<>(TextTokenizer.tokenize(query));
+        if (terms.isEmpty() || lengths.length == 0 || k <= 0 || (rows != null && rows.length == 0)) {
+            return new int[0];
+        }
+
+        float[] scores = new float[lengths.length];
+        int n = lengths.length;
+        for (String term : terms) {
+            Postings termPostings = postings.get(term);
+            if (termPostings == null) {
+                continue;
+            }
+            int df = termPostings.rows().length;
+            float idf = (float) Math.log(1.0 + (n - df + 0.5) / (df + 0.5));
+            for (int i = 0; i < df; i++) {
+                int row = termPostings.rows()[i];
+                int tf = termPostings.frequencies()[i];
+                float norm = K1 * (1.0f - B + B * lengths[row] / averageLength);
+                scores[row] += idf * tf * (K1 + 1.0f) / (tf + norm);
+            }
+        }
+
+        TopKHeap heap = new TopKHeap(k);
+        if (rows == null) {
+            for (int row = 0; row < n; row++) {
+                offerIfMatched(heap, row, scores[row]);
+            }
+        } else {
+            for (int row : rows) {
+                offerIfMatched(heap, row, scores[row]);
+            }
+        }
+        return heap.drainDescending();
+    }
+
+    /**
+     * Returns up to {@code limit} indexed terms that start with the given lower-case prefix, in alphabetical order,
+     * so that a word still being typed can be matched.
+     */
+    public List<String> termsStartingWith(String prefix, int limit) {
+        List<String> terms = new ArrayList<>();
+        int start = Arrays.binarySearch(sortedTerms, prefix);
+        for (int i = start >= 0 ? start : -start - 1; i < sortedTerms.length && terms.size() < limit; i++) {
+            if (!sortedTerms[i].startsWith(prefix)) {
+                break;
+            }
+            terms.add(sortedTerms[i]);
+        }
+        return terms;
+    }
+
+    private static void offerIfMatched(TopKHeap heap, int row, float score) {
+        if (score > 0.0f) {
+            heap.offer(row, score);
+        }
+    }
+
+    private record Postings(int[] rows, int[] frequencies) {}
+
+    /**
+     * Collects rows in order and produces the immutable index. Not thread-safe.
+     */
+    public static class Builder {
+
+        private final Map<String, PostingsBuilder> postings = new HashMap<>();
+        private int[] lengths = new int[16];
+        private int size;
+
+        /**
+         * Indexes the text of the next row; rows must be added as 0, 1, 2, ...
+         */
+        public void add(int row, String text) {
+            if (row != size) {
+                throw new IllegalStateException("Rows must be added in order; expected " + size + " but got " + row);
+            }
+            Map<String, Integer> frequencies = new HashMap<>();
+            int length = 0;
+            for (String term : TextTokenizer.tokenize(text)) {
+                frequencies.merge(term, 1, Integer::sum);
+                length++;
+            }
+            frequencies.forEach((term, tf) -> postings.computeIfAbsent(term, t -> new PostingsBuilder()).add(row, tf));
+            if (size == lengths.length) {
+                lengths = Arrays.copyOf(lengths, size * 2);
+            }
+            lengths[size++] = length;
+        }
+
+        public Bm25Index build() {
+            Map<String, Postings> built = new HashMap<>(postings.size() * 2);
+            postings.forEach((term, builder) -> built.put(term, builder.build()));
+            return new Bm25Index(built, Arrays.copyOf(lengths, size));
+        }
+    }
+
+    private static class PostingsBuilder {
+
+        private int[] rows = new int[4];
+        private int[] frequencies = new int[4];
+        private int size;
+
+        void add(int row, int frequency) {
+            if (size == rows.length) {
+                rows = Arrays.copyOf(rows, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            rows[size] = row;
+            frequencies[size++] = frequency;
+        }
+
+        Postings build() {
+            return new Postings(Arrays.copyOf(rows, size), Arrays.copyOf(frequencies, size));
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.cloud.docs.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Splits text into lower-cased terms for lexical search.
+ * <p>
+ * Identifiers are kept whole and also split into their parts, so {@code getCustomerById} yields
+ * {@code getcustomerbyid}, {@code get}, {@code customer}, {@code by} and {@code id}, and {@code INSUFFICIENT_FUNDS}
+ * yields {@code insufficient_funds}, {@code insufficient} and {@code funds}. An exact identifier in a question
+ * therefore matches strongly, while its words still match prose. A few very common English words are dropped.
+ */
+public final class TextTokenizer {
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "by", "can", "do", "does", "for", "from", "how", "i", "if",
+            "in", "is", "it", "of", "on", "or", "the", "this", "that", "to", "what", "when", "where", "which",
+            "with", "you");
+
+    private TextTokenizer() {
+    }
+
+    public static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+        int length = text.length();
+        int start = -1;
+        for (int i = 0; i <= length; i++) {
+            boolean wordChar = i < length && isWordChar(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                addWord(text.substring(start, i), terms);
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    private static void addWord(String word, List<String> terms) {
+        String whole = word.toLowerCase(Locale.ROOT);
+        addTerm(whole, terms);
+
+        // Split snake_case and camelCase identifiers into their parts as well
+        int partStart = 0;
+        boolean split = false;
+        for (int i = 1; i <= word.length(); i++) {
+            boolean boundary = i == word.length()
+                    || word.charAt(i) == '_'
+                    || (Character.isLowerCase(word.charAt(i - 1)) && Character.isUpperCase(word.charAt(i)))
+                    || (i + 1 < word.length() && Character.isUpperCase(word.charAt(i - 1))
+                            && Character.isUpperCase(word.charAt(i)) && Character.isLowerCase(word.charAt(i + 1)));
+            if (!boundary) {
+                continue;
+            }
+            if (i < word.length()) {
+                split = true;
+            }
+            if (split && i > partStart) {
+                String part = word.substring(partStart, i).replace("_", "").toLowerCase(Locale.ROOT);
+                if (!part.isEmpty() && !part.equals(whole)) {
+                    addTerm(part, terms);
+                }
+            }
+            partStart = i < word.length() && word.charAt(i) == '_' ? i + 1 : i;
+        }
+    }
+
+    private static void addTerm(String term, List<String> terms) {
+        if (!STOP_WORDS.contains(term)) {
+            terms.add(term);
+        }
+    }
+
+    private static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_';
+    }
+}
@@ -2,11 +2,20 @@ function aiController() {
     return {
         userInput: '',
         isLoading: false,
+        // True while an answer is being streamed into the last chat message
+        isStreaming: false,
         // The chatHistory will store the conversation objects
         chatHistory: [], // e.g., { role: 'user' | 'ai', content: '...', sources: [] }
+        // Restricts answers to part of the documentation, e.g. { hubName: 'payments' }; null searches everything
+        scope: null,
 
         // Initialize the controller and add the first welcome message
         initAi() {
+            // A page that belongs to one docs hub asks the assistant to answer from that hub only
+            const hubName = this.$el.dataset.aiHubName;
+            if (hubName) {
+                this.scope = {hubName: hubName};
+            }
             this.chatHistory.push({
                 role: 'ai',
                 content: '<p>Hello! Ask me anything about our documentation.</p>',
@@ -14,10 +23,10 @@ function aiController() {
             });
         },
 
-        // Handles sending the user's query to the backend
+        // Handles sending the user's query to the backend and streaming the answer into the chat
         async submitQuery() {
             const query = this.userInput.trim();
-            if (!query || this.isLoading) return;
+            if (!query || this.isLoading || this.isStreaming) return;
 
             // Add user message to the chat display
             this.chatHistory.push({role: 'user', content: query});
@@ -25,11 +34,13 @@ function aiController() {
             this.isLoading = true;
             this.$nextTick(() => this.scrollToBottom());
 
+            let answer = null;
+            let answerText = '';
             try {
-                const response = await fetch('/api/ai/ask', {
+                const response = await fetch('/api/ai/ask/stream', {
                     method: 'POST',
-                    headers: {'Content-Type': 'application/json', 'Accept': 'application/json'},
-                    body: JSON.stringify({query: query})
+                    headers: {'Content-Type': 'application/json', 'Accept': 'text/event-stream, application/json'},
+                    body: JSON.stringify({query: query, scope: this.scope})
                 });
 
                 if (!response.ok) {
@@ -37,12 +48,20 @@ function aiController() {
                     throw new Error(errorData.message || `Server responded with status: ${response.status}`);
                 }
 
-                const data = await response.json();
-                // Add the AI's response and sources to the chat display
-                this.chatHistory.push({
-                    role: 'ai',
-                    content: this.formatMarkdown(data.answer),
-                    sources: data.sources || []
+                await this.readEventStream(response, (event, data) => {
+                    if (event === 'sources') {
+                        // The sources arrive before the first token; show the answer bubble right away
+                        this.chatHistory.push({role: 'ai', content: '', sources: data || []});
+                        answer = this.chatHistory[this.chatHistory.length - 1];
+                        this.isLoading = false;
+                        this.isStreaming = true;
+                    } else if (event === 'token' && answer) {
+                        answerText += data.text;
+                        answer.content = this.formatMarkdown(answerText);
+                    } else if (event === 'error') {
+                        throw new Error(data.message || 'The answer could not be completed.');
+                    }
+                    this.$nextTick(() => this.scrollToBottom());
                 });
 
             } catch (error) {
@@ -54,10 +73,43 @@ function aiController() {
                 });
             } finally {
                 this.isLoading = false;
+                this.isStreaming = false;
                 this.$nextTick(() => this.scrollToBottom());
             }
         },
 
+        // Reads a text/event-stream response body, calling onEvent(name, parsedJsonData) for every event.
+        // EventSource only supports GET, so the stream of the POST request is parsed here.
+        async readEventStream(response, onEvent) {
+            const reader = response.body.getReader();
+            const decoder = new TextDecoder();
+            let buffer = '';
+            while (true) {
+                const {value, done} = await reader.read();
+                if (done) break;
+                buffer += decoder.decode(value, {stream: true}).replace(/\r\n?/g, '\n');
+
+                let boundary;
+                while ((boundary = buffer.indexOf('\n\n')) >= 0) {
+                    const rawEvent = buffer.slice(0, boundary);
+                    buffer = buffer.slice(boundary + 2);
+
+                    let event = 'message';
+                    const dataLines = [];
+                    for (const line of rawEvent.split('\n')) {
+                        if (line.startsWith('event:')) {
+                            event = line.slice(6).trim();
+                        } else if (line.startsWith('data:')) {
+                            dataLines.push(line.slice(5).replace(/^ /, ''));
+                        }
+                    }
+                    if (dataLines.length > 0) {
+                        onEvent(event, JSON.parse(dataLines.join('\n')));
+                    }
+                }
+            }
+        },
+
         // A simple formatter to turn newlines in the AI response into paragraphs
         formatMarkdown(text) {
             if (!text) return '';
@@ -0,0 +1,65 @@
+package com.cloud.docs.ai.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BinaryQuantizedIndexTest {
+
+    private final VectorSlab slab = IndexFixtures.slab(IndexFixtures.VECTORS);
+
+    @Test
+    void prefiltersOnSignBits() {
+        VectorSlab small = IndexFixtures.slab(new float[][]{{1f, 1f, 1f}, {-1f, -1f, -1f}, {1f, -1f, 1f}});
+        BinaryQuantizedIndex index = IndexFixtures.addAll(
+                new BinaryQuantizedIndex(small, IndexFixtures.POOL, IndexFixtures.PARTITION_SIZE, 1), small);
+
+        assertArrayEquals(new int[]{0}, index.search(new float[]{0.9f, 0.2f, 0.7f}, 1));
+        assertArrayEquals(new int[]{2}, index.search(new float[]{0.9f, -0.2f, 0.7f}, 1));
+    }
+
+    @Test
+    void findsNearDuplicateOfStoredVector() {
+        BinaryQuantizedIndex index = index(4);
+        Random random = new Random(3);
+
+        for (int row = 0; row < IndexFixtures.VECTORS.length; row += 97) {
+            float[] query = IndexFixtures.VECTORS[row].clone();
+            for (int d = 0; d < query.length; d++) {
+                query[d] += (float) random.nextGaussian() * 0.05f;
+            }
+            assertEquals(row, index.search(query, 1)[0]);
+        }
+    }
+
+    @Test
+    void rescoringEveryRowMatchesBruteForce() {
+        double recall = IndexFixtures.recall(index(IndexFixtures.VECTORS.length / 10), slab, IndexFixtures.QUERIES, 10);
+
+        assertEquals(1.0, recall, 1e-9);
+    }
+
+    @Test
+    void recallRisesWithRescoreMultiplier() {
+        double narrow = IndexFixtures.recall(index(1), slab, IndexFixtures.QUERIES, 10);
+        double wide = IndexFixtures.recall(index(20), slab, IndexFixtures.QUERIES, 10);
+
+        assertTrue(wide > narrow, "recall went from " + narrow + " to " + wide);
+    }
+
+    @Test
+    void holdsOneBitPerDimensionInWholeWords() {
+        assertEquals(8L, index(4).bytesPerVector());
+        VectorSlab wider = IndexFixtures.emptySlab(65);
+        assertEquals(16L, new BinaryQuantizedIndex(wider, IndexFixtures.POOL, IndexFixtures.PARTITION_SIZE, 4).bytesPerVector());
+    }
+
+    private BinaryQuantizedIndex index(int rescoreMultiplier) {
+        return IndexFixtures.addAll(
+                new BinaryQuantizedIndex(slab, IndexFixtures.POOL, IndexFixtures.PARTITION_SIZE, rescoreMultiplier), slab);
+    }
+}
@@ -0,0 +1,28 @@
+package com.cloud.docs.ai.index;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HnswIndexTest {
+
+    private final VectorSlab slab = IndexFixtures.slab(IndexFixtures.VECTORS);
+
+    @Test
+    void recallRisesWithEfSearch() {
+        double narrow = IndexFixtures.recall(index(16), slab, IndexFixtures.QUERIES, 10);
+        double wide = IndexFixtures.recall(index(128), slab, IndexFixtures.QUERIES, 10);
+
+        assertTrue(wide > narrow, "recall went from " + narrow + " to " + wide);
+    }
+
+    @Test
+    void sameSeedBuildsSameGraph() {
+        assertArrayEquals(index(64).search(IndexFixtures.QUERIES[1], 10), index(64).search(IndexFixtures.QUERIES[1], 10));
+    }
+
+    private HnswIndex index(int efSearch) {
+        return IndexFixtures.addAll(new HnswIndex(slab, 16, 200, efSearch, 42), slab);
+    }
+}
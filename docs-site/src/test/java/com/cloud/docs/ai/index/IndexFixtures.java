@@ -0,0 +1,88 @@
+package com.cloud.docs.ai.index;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Synthetic embeddings for index tests: points scattered around random cluster centres, which is closer to how
+ * document embeddings sit than uniform noise, plus recall@k of an index against exact search.
+ */
+final class IndexFixtures {
+
+    static final ForkJoinPool POOL = ForkJoinPool.commonPool();
+    static final int PARTITION_SIZE = 256;
+    static final int DIMENSION = 64;
+    static final float[][] VECTORS = clustered(3000, DIMENSION, 20, 1);
+    static final float[][] QUERIES = clustered(100, DIMENSION, 20, 2);
+
+    private IndexFixtures() {
+    }
+
+    static float[][] clustered(int count, int dimension, int clusters, long seed) {
+        Random random = new Random(seed);
+        float[][] centres = new float[clusters][];
+        for (int c = 0; c < clusters; c++) {
+            centres[c] = gaussian(random, dimension, 1.0f);
+        }
+        float[][] vectors = new float[count][];
+        for (int i = 0; i < count; i++) {
+            float[] noise = gaussian(random, dimension, 0.5f);
+            float[] centre = centres[random.nextInt(clusters)];
+            for (int d = 0; d < dimension; d++) {
+                noise[d] += centre[d];
+            }
+            vectors[i] = noise;
+        }
+        return vectors;
+    }
+
+    static VectorSlab emptySlab(int dimension) {
+        return new VectorSlab(dimension, ScalarKernel.INSTANCE);
+    }
+
+    static VectorSlab slab(float[][] vectors) {
+        VectorSlab slab = emptySlab(vectors[0].length);
+        for (float[] vector : vectors) {
+            slab.append(vector);
+        }
+        return slab;
+    }
+
+    static <T extends VectorIndex> T addAll(T index, VectorSlab slab) {
+        for (int row = 0; row < slab.size(); row++) {
+            index.add(row);
+        }
+        return index;
+    }
+
+    /**
+     * Similarity of a stored row to a query, as exact search scores it.
+     */
+    static float score(VectorSlab slab, int row, float[] query) {
+        return slab.dot(row, VectorSlab.normalize(query));
+    }
+
+    /**
+     * Mean fraction of the exact top-k rows that the index also returns.
+     */
+    static double recall(VectorIndex index, VectorSlab slab, float[][] queries, int k) {
+        BruteForceIndex exact = new BruteForceIndex(slab, POOL, PARTITION_SIZE);
+        double total = 0.0;
+        for (float[] query : queries) {
+            int[] expected = exact.search(query, k);
+            int[] found = index.search(query, k);
+            total += Arrays.stream(found).filter(row -> Arrays.stream(expected).anyMatch(e -> e == row)).count()
+                    / (double) expected.length;
+        }
+        return total / queries.length;
+    }
+
+    private static float[] gaussian(Random random, int dimension, float sigma) {
+        float[] vector = new float[dimension];
+        for (int d = 0; d < dimension; d++) {
+            vector[d] = (float) random.nextGaussian() * sigma;
+        }
+        return vector;
+    }
+}
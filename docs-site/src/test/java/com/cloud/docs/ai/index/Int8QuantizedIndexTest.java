@@ -0,0 +1,39 @@
+package com.cloud.docs.ai.index;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class Int8QuantizedIndexTest {
+
+    private final VectorSlab slab = IndexFixtures.slab(IndexFixtures.VECTORS);
+
+    @Test
+    void integerScoresAloneTrackExactOrder() {
+        double recall = IndexFixtures.recall(index(1, true), slab, IndexFixtures.QUERIES, 10);
+
+        assertTrue(recall >= 0.9, "recall@10 without rescoring was " + recall);
+    }
+
+    @Test
+    void searchesCorrectlyBeforeOptimize() {
+        double recall = IndexFixtures.recall(index(4, false), slab, IndexFixtures.QUERIES, 10);
+
+        assertTrue(recall >= 0.9, "recall@10 with the default range was " + recall);
+    }
+
+    @Test
+    void holdsOneBytePerDimension() {
+        assertEquals(64L, index(4, false).bytesPerVector());
+    }
+
+    private Int8QuantizedIndex index(int rescoreMultiplier, boolean optimize) {
+        Int8QuantizedIndex index = IndexFixtures.addAll(
+                new Int8QuantizedIndex(slab, IndexFixtures.POOL, IndexFixtures.PARTITION_SIZE, rescoreMultiplier), slab);
+        if (optimize) {
+            index.optimize();
+        }
+        return index;
+    }
+}
@@ -0,0 +1,45 @@
+package com.cloud.docs.ai.index;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MatryoshkaIndexTest {
+
+    private final VectorSlab slab = IndexFixtures.slab(IndexFixtures.VECTORS);
+    private final BruteForceIndex exact = new BruteForceIndex(slab, IndexFixtures.POOL, IndexFixtures.PARTITION_SIZE);
+
+    @Test
+    void fullDimensionPrefixGivesExactOrder() {
+        MatryoshkaIndex index = index(IndexFixtures.DIMENSION, 1);
+
+        for (float[] query : IndexFixtures.QUERIES) {
+            assertArrayEquals(exact.search(query, 10), index.search(query, 10));
+        }
+    }
+
+    @Test
+    void rescoringEveryRowGivesExactOrder() {
+        MatryoshkaIndex index = index(8, IndexFixtures.VECTORS.length / 10);
+
+        for (float[] query : IndexFixtures.QUERIES) {
+            assertArrayEquals(exact.search(query, 10), index.search(query, 10));
+        }
+    }
+
+    @Test
+    void rejectsPrefixLongerThanVectors() {
+        assertThrows(IllegalArgumentException.class, () -> index(IndexFixtures.DIMENSION + 1, 8));
+    }
+
+    @Test
+    void rejectsEmptyPrefix() {
+        assertThrows(IllegalArgumentException.class, () -> index(0, 8));
+    }
+
+    private MatryoshkaIndex index(int prefixDimensions, int rescoreMultiplier) {
+        return IndexFixtures.addAll(new MatryoshkaIndex(slab, IndexFixtures.POOL, IndexFixtures.PARTITION_SIZE,
+                prefixDimensions, rescoreMultiplier), slab);
+    }
+}
@@ -0,0 +1,35 @@
+package com.cloud.docs.ai.index;
+
+import com.cloud.docs.search.TopKHeap;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+class PartitionedScanTest {
+
+    @Test
+    void parallelScanMatchesSequentialScan() {
+        Random random = new Random(7);
+        float[] scores = new float[10_000];
+        for (int row = 0; row < scores.length; row++) {
+            scores[row] = random.nextFloat();
+        }
+        TopKHeap sequential = new TopKHeap(25);
+        for (int row = 0; row < scores.length; row++) {
+            sequential.offer(row, scores[row]);
+        }
+
+        int[] parallel = PartitionedScan.topK(ForkJoinPool.commonPool(), scores.length, 25, 512, row -> scores[row]);
+
+        assertArrayEquals(sequential.drainDescending(), parallel);
+    }
+
+    @Test
+    void returnsNothingForEmptyRangeOrZeroK() {
+        assertArrayEquals(new int[0], PartitionedScan.topK(ForkJoinPool.commonPool(), 0, 10, 512, row -> 1.0f));
+        assertArrayEquals(new int[0], PartitionedScan.topK(ForkJoinPool.commonPool(), 100, 0, 512, row -> 1.0f));
+    }
+}
@@ -0,0 +1,31 @@
+package com.cloud.docs.ai.index;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+class ReciprocalRankFusionTest {
+
+    @Test
+    void rowFoundByBothRetrieversRanksFirst() {
+        int[] keyword = {1, 2, 3};
+        int[] vector = {2, 4};
+
+        assertArrayEquals(new int[]{2, 1, 4, 3}, ReciprocalRankFusion.fuse(10, 60, keyword, vector));
+    }
+
+    @Test
+    void keepsAtMostK() {
+        assertArrayEquals(new int[]{2, 1}, ReciprocalRankFusion.fuse(2, 60, new int[]{1, 2, 3}, new int[]{2, 4}));
+    }
+
+    @Test
+    void singleRankingKeepsItsOrder() {
+        assertArrayEquals(new int[]{9, 3, 5}, ReciprocalRankFusion.fuse(5, 60, new int[]{9, 3, 5}));
+    }
+
+    @Test
+    void emptyRankingsFuseToNothing() {
+        assertArrayEquals(new int[0], ReciprocalRankFusion.fuse(5, 60, new int[0], new int[0]));
+    }
+}
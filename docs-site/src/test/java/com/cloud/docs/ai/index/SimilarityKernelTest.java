@@ -0,0 +1,51 @@
+package com.cloud.docs.ai.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class SimilarityKernelTest {
+
+    @Test
+    void vectorApiMatchesScalarDotProducts() {
+        assumeTrue(SimilarityKernel.isVectorApiAvailable(), "needs --add-modules jdk.incubator.vector");
+        SimilarityKernel simd = new VectorApiKernel();
+        Random random = new Random(5);
+
+        // Lengths around the lane counts exercise both the vector loop and the scalar tail
+        for (int length : new int[]{1, 3, 7, 8, 15, 16, 17, 64, 100, 3072}) {
+            float[] a = random(random, length + 5);
+            float[] b = random(random, length + 2);
+            float expected = ScalarKernel.INSTANCE.dot(a, 5, b, 2, length);
+
+            assertEquals(expected, simd.dot(a, 5, b, 2, length), 1e-4f * Math.max(1f, Math.abs(expected)));
+        }
+    }
+
+    @Test
+    void vectorApiAndScalarSearchesAgree() {
+        assumeTrue(SimilarityKernel.isVectorApiAvailable(), "needs --add-modules jdk.incubator.vector");
+        VectorSlab slab = IndexFixtures.slab(IndexFixtures.VECTORS);
+        BruteForceIndex index = new BruteForceIndex(slab, IndexFixtures.POOL, IndexFixtures.PARTITION_SIZE);
+
+        for (float[] query : IndexFixtures.QUERIES) {
+            slab.setKernel(ScalarKernel.INSTANCE);
+            int[] scalar = index.search(query, 10);
+            slab.setKernel(new VectorApiKernel());
+
+            assertArrayEquals(scalar, index.search(query, 10));
+        }
+    }
+
+    private static float[] random(Random random, int length) {
+        float[] vector = new float[length];
+        for (int i = 0; i < length; i++) {
+            vector[i] = random.nextFloat() * 2 - 1;
+        }
+        return vector;
+    }
+}
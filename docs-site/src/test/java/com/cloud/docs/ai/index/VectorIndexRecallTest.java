@@ -0,0 +1,88 @@
+package com.cloud.docs.ai.index;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static com.cloud.docs.ai.index.IndexFixtures.PARTITION_SIZE;
+import static com.cloud.docs.ai.index.IndexFixtures.POOL;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs every approximate {@link VectorIndex} against exact search on the same clustered embeddings.
+ */
+class VectorIndexRecallTest {
+
+    private static final float[][] VECTORS = IndexFixtures.VECTORS;
+    private static final float[][] QUERIES = IndexFixtures.QUERIES;
+
+    private final VectorSlab slab = IndexFixtures.slab(VECTORS);
+
+    /**
+     * An index type as the store would configure it, with the recall@10 it must reach on the fixtures.
+     */
+    record IndexCase(String name, double minRecall, Function<VectorSlab, VectorIndex> factory) {
+
+        VectorIndex build(VectorSlab slab) {
+            VectorIndex index = IndexFixtures.addAll(factory.apply(slab), slab);
+            index.optimize();
+            return index;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    static Stream<IndexCase> indexes() {
+        return Stream.of(
+                new IndexCase("hnsw", 0.95, slab -> new HnswIndex(slab, 16, 200, 128, 42)),
+                new IndexCase("int8", 0.98, slab -> new Int8QuantizedIndex(slab, POOL, PARTITION_SIZE, 4)),
+                // One bit per dimension only separates clusters, so rows within one are told apart by rescoring
+                new IndexCase("binary", 0.75, slab -> new BinaryQuantizedIndex(slab, POOL, PARTITION_SIZE, 50)),
+                // The fixtures are not Matryoshka-trained, so a prefix only ranks well if it keeps most dimensions
+                new IndexCase("matryoshka", 0.9, slab -> new MatryoshkaIndex(slab, POOL, PARTITION_SIZE, 48, 16)));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("indexes")
+    void recallAgainstBruteForce(IndexCase indexCase) {
+        double recall = IndexFixtures.recall(indexCase.build(slab), slab, QUERIES, 10);
+
+        assertTrue(recall >= indexCase.minRecall(), indexCase + " recall@10 was " + recall);
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("indexes")
+    void findsStoredVectorFirst(IndexCase indexCase) {
+        VectorIndex index = indexCase.build(slab);
+
+        for (int row = 0; row < VECTORS.length; row += 97) {
+            assertEquals(row, index.search(VECTORS[row], 1)[0]);
+        }
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("indexes")
+    void returnsResultsBestFirst(IndexCase indexCase) {
+        int[] rows = indexCase.build(slab).search(QUERIES[0], 10);
+
+        assertEquals(10, rows.length);
+        for (int i = 1; i < rows.length; i++) {
+            assertTrue(IndexFixtures.score(slab, rows[i - 1], QUERIES[0]) >= IndexFixtures.score(slab, rows[i], QUERIES[0]));
+        }
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("indexes")
+    void emptyIndexReturnsNothing(IndexCase indexCase) {
+        VectorIndex empty = indexCase.build(IndexFixtures.emptySlab(IndexFixtures.DIMENSION));
+
+        assertArrayEquals(new int[0], empty.search(QUERIES[0], 10));
+    }
+}
@@ -0,0 +1,70 @@
+package com.cloud.docs.ai.index;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class VectorSlabTest {
+
+    @Test
+    void normalizesAppendedRows() {
+        for (boolean offHeap : new boolean[]{false, true}) {
+            VectorSlab slab = new VectorSlab(2, ScalarKernel.INSTANCE, offHeap);
+            int row = slab.append(new float[]{3f, 4f});
+
+            assertArrayEquals(new float[]{0.6f, 0.8f}, slab.vector(row), 1e-6f);
+            assertEquals(1.0f, slab.dot(row, row), 1e-6f);
+            assertEquals(0.6f, slab.dot(row, new float[]{1f, 0f}), 1e-6f);
+        }
+    }
+
+    @Test
+    void scorerKeepsTheKernelItStartedWith() {
+        VectorSlab slab = new VectorSlab(2, ScalarKernel.INSTANCE);
+        slab.append(new float[]{3f, 4f});
+        RowScorer scorer = slab.scorer(new float[]{1f, 0f});
+
+        slab.setKernel(new SimilarityKernel() {
+            @Override
+            public String name() {
+                return "switched";
+            }
+
+            @Override
+            public float dot(float[] a, int aOffset, float[] b, int bOffset, int length) {
+                return -1f;
+            }
+        });
+
+        assertEquals(0.6f, scorer.score(0), 1e-6f);
+        assertEquals(-1f, slab.dot(0, new float[]{1f, 0f}), 1e-6f);
+    }
+
+    @Test
+    void growsPastInitialCapacity() {
+        for (boolean offHeap : new boolean[]{false, true}) {
+            VectorSlab slab = new VectorSlab(3, ScalarKernel.INSTANCE, offHeap);
+            for (int i = 0; i < 1000; i++) {
+                slab.append(new float[]{i, 1f, 0f});
+            }
+
+            assertEquals(1000, slab.size());
+            assertArrayEquals(VectorSlab.normalize(new float[]{999f, 1f, 0f}), slab.vector(999), 1e-6f);
+        }
+    }
+
+    @Test
+    void boundsRowsSoOffsetsFitInAnInt() {
+        assertEquals(699_050, VectorSlab.maxRows(3072, false));
+        assertEquals(174_762, VectorSlab.maxRows(3072, true));
+        assertEquals(0, VectorSlab.maxRows(Integer.MAX_VALUE, true));
+    }
+
+    @Test
+    void growsArraysWithoutOverflow() {
+        assertEquals(Integer.MAX_VALUE - 8, VectorSlab.grownLength(1_500_000_000, 1_500_000_001));
+        assertEquals(200, VectorSlab.grownLength(100, 101));
+        assertEquals(500, VectorSlab.grownLength(100, 500));
+    }
+}
@@ -0,0 +1,80 @@
+package com.cloud.docs.ai.service;
+
+import com.cloud.docs.ai.config.AiProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AiBulkheadTest {
+
+    private final AiProperties properties = new AiProperties();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private AiBulkhead bulkhead;
+
+    @BeforeEach
+    void setUp() {
+        properties.getBulkhead().setMaxConcurrent(1);
+        properties.getBulkhead().setQueueCapacity(1);
+        properties.getBulkhead().setQueueTimeout(Duration.ofMillis(100));
+        bulkhead = new AiBulkhead(properties);
+        bulkhead.startExecutor();
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        bulkhead.stopExecutor();
+    }
+
+    @Test
+    void completesWithTheAnswer() throws Exception {
+        assertEquals("answer", bulkhead.submit(() -> "answer").get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void rejectsQuestionThatWaitedTooLong() {
+        bulkhead.submit(this::blockUntilReleased);
+        CompletableFuture<String> queued = bulkhead.submit(() -> "too late");
+
+        ExecutionException error = assertThrows(ExecutionException.class, () -> queued.get(1, TimeUnit.SECONDS));
+        AiOverloadedException overloaded = assertInstanceOf(AiOverloadedException.class, error.getCause());
+        assertEquals(AiOverloadedException.Reason.QUEUE_TIMEOUT, overloaded.getReason());
+        assertEquals(1L, bulkhead.stats().rejectedQueueTimeout());
+    }
+
+    @Test
+    void rejectsQuestionWhenQueueIsFull() {
+        bulkhead.submit(this::blockUntilReleased);
+        bulkhead.submit(this::blockUntilReleased);
+
+        AiOverloadedException error = assertThrows(AiOverloadedException.class, () -> bulkhead.submit(() -> "no room"));
+        assertEquals(AiOverloadedException.Reason.QUEUE_FULL, error.getReason());
+    }
+
+    @Test
+    void answeredQuestionDoesNotTimeOutLater() throws Exception {
+        bulkhead.submit(() -> "answer").get(1, TimeUnit.SECONDS);
+        Thread.sleep(200);
+
+        assertEquals(0L, bulkhead.stats().rejectedQueueTimeout());
+    }
+
+    private String blockUntilReleased() {
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "released";
+    }
+}
@@ -0,0 +1,135 @@
+package com.cloud.docs.ai.service;
+
+import com.cloud.docs.ai.config.AiProperties;
+import com.cloud.docs.ai.model.ChunkMetadata;
+import com.cloud.docs.ai.model.DocumentChunk;
+import com.cloud.docs.ai.model.PromptContext;
+import com.cloud.docs.ai.model.SourceDocument;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ContextAssemblerTest {
+
+    private static final SourceDocument GUIDE = new SourceDocument(Map.of("title", "Payments guide", "url", "/hub/pay?article=guide"));
+
+    private final AiProperties properties = new AiProperties();
+    private final ContextAssembler assembler = new ContextAssembler(properties);
+
+    @Test
+    void keepsCodeFenceWhenPreviousChunkEndsWithOne() {
+        DocumentChunk first = chunk("a", GUIDE, 0, "Guide > Refunds\n\nCall the endpoint:\n\n```\ncurl -X POST /refunds\n```");
+        DocumentChunk second = chunk("b", GUIDE, 1, "```java\nclient.refund(paymentId);\n```");
+
+        String text = assembler.assemble(List.of(first, second)).text();
+
+        assertTrue(text.contains("```java\nclient.refund(paymentId);\n```"), text);
+    }
+
+    @Test
+    void keepsFirstCharacterWhenPreviousChunkEndsWithTheSameCharacter() {
+        DocumentChunk first = chunk("a", GUIDE, 0, "Refunds are asynchronous.");
+        DocumentChunk second = chunk("b", GUIDE, 1, ".NET clients poll the refund status.");
+
+        String text = assembler.assemble(List.of(first, second)).text();
+
+        assertTrue(text.contains("\n\n.NET clients poll the refund status."), text);
+    }
+
+    @Test
+    void givesSharedHeadingTrailOnce() {
+        DocumentChunk first = chunk("a", GUIDE, 0, "Guide > Refunds\n\nRefunds are asynchronous.");
+        DocumentChunk second = chunk("b", GUIDE, 1, "Guide > Refunds\n\n    indented code stays indented");
+
+        String text = assembler.assemble(List.of(second, first)).text();
+
+        assertEquals("Source: Payments guide\n\nGuide > Refunds\n\nRefunds are asynchronous.\n\n"
+                + "    indented code stays indented", text);
+    }
+
+    @Test
+    void dropsNearDuplicateChunks() {
+        DocumentChunk original = chunk("a", GUIDE, 0, "Refunds are processed within five business days of the request.");
+        DocumentChunk copy = chunk("b", new SourceDocument(Map.of("url", "/other")), 0,
+                "Refunds are processed within five business days of the request.");
+
+        PromptContext context = assembler.assemble(List.of(original, copy));
+
+        assertEquals(List.of(original), context.chunks());
+    }
+
+    @Test
+    void staysWithinTokenBudget() {
+        properties.getContext().setMaxTokens(20);
+        DocumentChunk small = chunk("a", GUIDE, 0, "Short answer about refunds.");
+        DocumentChunk large = chunk("b", new SourceDocument(Map.of("url", "/large")), 0, "word ".repeat(200));
+
+        PromptContext context = assembler.assemble(List.of(small, large));
+
+        assertEquals(List.of(small), context.chunks());
+        assertFalse(context.text().contains("word word"));
+    }
+
+    @Test
+    void ordersChunksOfOnePageByPosition() {
+        DocumentChunk later = chunk("b", GUIDE, 3, "Step two.");
+        DocumentChunk earlier = chunk("a", GUIDE, 1, "Step one.");
+
+        String text = assembler.assemble(List.of(later, earlier)).text();
+
+        assertTrue(text.indexOf("Step one.") < text.indexOf("Step two."), text);
+    }
+
+    @Test
+    void defaultBudgetSpendsFewerTokensThanVerbatimTopFive() {
+        // Ten retrieved candidates of ~500 characters from three pages, one of them a copy of another
+        SourceDocument refunds = new SourceDocument(Map.of("title", "Refunds", "url", "/hub/pay?article=refunds"));
+        SourceDocument disputes = new SourceDocument(Map.of("title", "Disputes", "url", "/hub/pay?article=disputes"));
+        SourceDocument payouts = new SourceDocument(Map.of("title", "Payouts", "url", "/hub/pay?article=payouts"));
+        Random random = new Random(3);
+        List<DocumentChunk> candidates = new ArrayList<>();
+        candidates.add(chunk("r0", refunds, 0, "Refunds > Timing\n\n" + prose(random)));
+        candidates.add(chunk("r1", refunds, 1, "Refunds > Timing\n\n" + prose(random)));
+        candidates.add(new DocumentChunk("r1-copy", candidates.get(1).content(), null,
+                new ChunkMetadata(new SourceDocument(Map.of("url", "/hub/pay?article=refunds-v1")), 1)));
+        candidates.add(chunk("d0", disputes, 0, "Disputes > Evidence\n\n" + prose(random)));
+        candidates.add(chunk("r2", refunds, 2, "Refunds > Fees\n\n" + prose(random)));
+        for (int i = 0; i < 5; i++) {
+            candidates.add(chunk("p" + i, payouts, i, "Payouts > Schedule\n\n" + prose(random)));
+        }
+        String verbatimTopFive = candidates.subList(0, 5).stream()
+                .map(DocumentChunk::content)
+                .collect(Collectors.joining("\n\n---\n\n"));
+
+        PromptContext context = assembler.assemble(candidates);
+
+        int before = ContextAssembler.estimateTokens(verbatimTopFive);
+        int after = context.estimatedTokens();
+        assertTrue(before > 600, "baseline " + before);
+        assertTrue(after <= properties.getContext().getMaxTokens(), "assembled " + after);
+        assertTrue(after < before, "assembled " + after + " vs baseline " + before);
+        assertFalse(context.chunks().stream().anyMatch(chunk -> chunk.id().equals("r1-copy")));
+        assertTrue(context.chunks().size() >= 3, "chunks " + context.chunks().size());
+    }
+
+    /** About 480 characters of words that rarely repeat across calls. */
+    private static String prose(Random random) {
+        StringBuilder text = new StringBuilder();
+        while (text.length() < 480) {
+            text.append("term").append(random.nextInt(2000)).append(' ');
+        }
+        return text.toString().strip() + ".";
+    }
+
+    private static DocumentChunk chunk(String id, SourceDocument source, int index, String content) {
+        return new DocumentChunk(id, content, null, new ChunkMetadata(source, index));
+    }
+}
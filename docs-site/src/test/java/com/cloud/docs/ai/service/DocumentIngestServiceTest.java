@@ -0,0 +1,246 @@
+package com.cloud.docs.ai.service;
+
+import com.cloud.docs.ai.config.AiProperties;
+import com.cloud.docs.ai.model.IngestStatus;
+import com.cloud.docs.controller.ApiRegistryService;
+import com.cloud.docs.controller.ApiSpecificationLoader;
+import com.cloud.docs.controller.DocsArticleNode;
+import com.cloud.docs.controller.DocsHubRegistry;
+import com.cloud.docs.controller.DocsHubService;
+import com.cloud.docs.controller.DocsProperties;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import org.commonmark.parser.Parser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.EmbeddingModel;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DocumentIngestServiceTest {
+
+    private static final int DIMENSION = 8;
+
+    private final AiProperties properties = new AiProperties();
+    private final FakeEmbeddingModel embeddingModel = new FakeEmbeddingModel();
+    private final FakeHubRegistry hubRegistry = new FakeHubRegistry();
+    private VectorStore vectorStore;
+    private EmbeddingCache embeddingCache;
+    private DocumentIngestService ingestService;
+
+    @BeforeEach
+    void setUp() {
+        properties.getEmbedding().setDimensions(DIMENSION);
+        properties.getEmbedding().getCache().setEnabled(false);
+        properties.getEmbedding().getBatching().setMaxAttempts(1);
+        properties.getEmbedding().getChunking().setMinTokens(1);
+        vectorStore = new VectorStore(properties);
+        vectorStore.startSearchPool();
+        embeddingCache = new EmbeddingCache(properties);
+        EmbeddingService embeddingService = new EmbeddingService(embeddingModel, embeddingCache,
+                new MarkdownChunker(Parser.builder().build(), properties), properties);
+        embeddingService.initializeBatching();
+        ingestService = new DocumentIngestService(new ApiRegistryService(new ArrayList<>()),
+                new ApiSpecificationLoader(new DocsProperties()), hubRegistry, vectorStore, embeddingService,
+                embeddingCache, properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        vectorStore.stopSearchPool();
+        embeddingCache.close();
+    }
+
+    @Test
+    void publishesEmbeddedHub() {
+        hubRegistry.hub("payments", Map.of("refunds", "# Refunds\n\nRefunds settle within five business days."));
+
+        IngestStatus status = reindex();
+
+        assertEquals(IngestStatus.State.READY, status.state());
+        assertTrue(ingestService.isReady());
+        assertEquals(1, vectorStore.size());
+    }
+
+    @Test
+    void staysNotReadyWhenEmbeddingEndpointIsDown() {
+        hubRegistry.hub("payments", Map.of("refunds", "# Refunds\n\nRefunds settle within five business days."));
+        embeddingModel.down = true;
+
+        IngestStatus status = reindex();
+
+        assertEquals(IngestStatus.State.FAILED, status.state());
+        assertEquals(1, status.sourcesFailed());
+        assertEquals(0, status.sourcesDone());
+        assertFalse(ingestService.isReady());
+        assertEquals(0, vectorStore.size());
+    }
+
+    @Test
+    void keepsServedChunksWhenEmbeddingEndpointGoesDown() {
+        hubRegistry.hub("payments", Map.of("refunds", "# Refunds\n\nRefunds settle within five business days."));
+        reindex();
+        hubRegistry.hub("payments", Map.of("refunds", "# Refunds\n\nRefunds settle within three business days."));
+        embeddingModel.down = true;
+
+        IngestStatus status = reindex();
+
+        assertEquals(IngestStatus.State.FAILED, status.state());
+        assertTrue(ingestService.isReady());
+        assertEquals(1, vectorStore.size());
+    }
+
+    @Test
+    void doesNotPublishIngestWithoutChunks() {
+        IngestStatus status = ingest();
+
+        assertEquals(IngestStatus.State.FAILED, status.state());
+        assertFalse(ingestService.isReady());
+    }
+
+    @Test
+    void reindexEmbedsOnlyEditedSectionsAndCompactsRemovedChunks() {
+        hubRegistry.hub("payments", Map.of(
+                "refunds", "# Refunds\n\n## Timing\n\nRefunds settle within five business days.\n\n"
+                        + "## Fees\n\nRefunds do not return the processing fee.",
+                "disputes", "# Disputes\n\nDisputes are opened by the card holder's bank."));
+        reindex();
+        assertEquals(3, vectorStore.size());
+        hubRegistry.hub("payments", Map.of(
+                "refunds", "# Refunds\n\n## Timing\n\nRefunds settle within three business days.\n\n"
+                        + "## Fees\n\nRefunds do not return the processing fee."));
+        embeddingModel.embedded.clear();
+
+        IngestStatus status = reindex();
+
+        assertEquals(IngestStatus.State.READY, status.state());
+        assertEquals(List.of("Refunds > Timing\n\nRefunds settle within three business days."), embeddingModel.embedded);
+        assertEquals(1, status.chunksAdded());
+        assertEquals(1, status.chunksReused());
+        assertEquals(2, vectorStore.size());
+        Set<String> indexed = new HashSet<>();
+        float[] query = new float[DIMENSION];
+        Arrays.fill(query, 1f);
+        vectorStore.search(query, 10).forEach(chunk -> indexed.add(chunk.content()));
+        assertEquals(Set.of("Refunds > Timing\n\nRefunds settle within three business days.",
+                "Refunds > Fees\n\nRefunds do not return the processing fee."), indexed);
+    }
+
+    @Test
+    void ingestWithoutReloadIgnoresEditsNotYetLoaded() {
+        hubRegistry.hub("payments", Map.of("refunds", "# Refunds\n\nRefunds settle within five business days."));
+        reindex();
+        hubRegistry.hub("payments", Map.of("refunds", "# Refunds\n\nRefunds settle within three business days."));
+        embeddingModel.embedded.clear();
+
+        IngestStatus status = ingest();
+
+        assertEquals(IngestStatus.State.READY, status.state());
+        assertEquals(List.of(), embeddingModel.embedded);
+    }
+
+    private IngestStatus ingest() {
+        return await(ingestService.startAsync());
+    }
+
+    private IngestStatus reindex() {
+        return await(ingestService.startReindex());
+    }
+
+    private IngestStatus await(boolean started) {
+        assertTrue(started);
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (ingestService.getStatus().state() == IngestStatus.State.WARMING && System.currentTimeMillis() < deadline) {
+            Thread.onSpinWait();
+        }
+        return ingestService.getStatus();
+    }
+
+    /** Embeds each text as a deterministic vector, or fails every call like an unreachable endpoint. */
+    static final class FakeEmbeddingModel implements EmbeddingModel {
+
+        final List<String> embedded = new ArrayList<>();
+        volatile boolean down;
+
+        @Override
+        public synchronized List<float[]> embed(List<String> texts) {
+            if (down) {
+                throw new StatusRuntimeException(Status.UNAVAILABLE);
+            }
+            embedded.addAll(texts);
+            List<float[]> vectors = new ArrayList<>(texts.size());
+            for (String text : texts) {
+                float[] vector = new float[DIMENSION];
+                for (int i = 0; i < DIMENSION; i++) {
+                    vector[i] = ((text.hashCode() >>> i) & 1) == 0 ? -1f : 1f;
+                }
+                vectors.add(vector);
+            }
+            return vectors;
+        }
+
+        @Override
+        public EmbeddingResponse call(EmbeddingRequest request) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public float[] embed(Document document) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /** Serves hubs built in the test instead of scanning the classpath; edits become visible on reload. */
+    static final class FakeHubRegistry extends DocsHubRegistry {
+
+        private final Map<String, DocsHubService> staged = new ConcurrentHashMap<>();
+        private volatile Map<String, DocsHubService> hubs = Map.of();
+
+        FakeHubRegistry() {
+            super(Parser.builder().build());
+        }
+
+        void hub(String hubName, Map<String, String> articles) {
+            List<DocsArticleNode> articleList = new ArrayList<>();
+            articles.forEach((id, content) -> articleList.add(
+                    new DocsArticleNode(id, id, id + ".md", false, new ArrayList<>(), content)));
+            DocsArticleNode tree = new DocsArticleNode(hubName, hubName, "", true, articleList, null);
+            staged.put(hubName, new DocsHubService(hubName, Parser.builder().build()) {
+                @Override
+                public DocsArticleNode getArticleTree() {
+                    return tree;
+                }
+
+                @Override
+                public List<DocsArticleNode> getFlatArticleList() {
+                    return articleList;
+                }
+            });
+        }
+
+        @Override
+        public void reload() {
+            hubs = Map.copyOf(staged);
+        }
+
+        @Override
+        public Collection<DocsHubService> getAllHubs() {
+            return hubs.values();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.cloud.docs.ai.service;
+
+import com.cloud.docs.ai.config.AiProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class EmbeddingCacheTest {
+
+    private Path directory;
+    private AiProperties properties;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("embedding-cache");
+        properties = new AiProperties();
+        properties.getEmbedding().setModel("test-model");
+        properties.getEmbedding().setDimensions(4);
+        properties.getEmbedding().getCache().setDirectory(directory.toString());
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    @Test
+    void readsAppendedEmbeddingsBackAfterReopening() {
+        EmbeddingCache cache = new EmbeddingCache(properties);
+        cache.put("refunds", new float[]{0.1f, 0.2f, 0.3f, 0.4f});
+        cache.put("payouts", new float[]{-1f, 0f, 1f, 2f});
+        cache.close();
+
+        EmbeddingCache reopened = new EmbeddingCache(properties);
+
+        assertArrayEquals(new float[]{0.1f, 0.2f, 0.3f, 0.4f}, reopened.get("refunds"));
+        assertArrayEquals(new float[]{-1f, 0f, 1f, 2f}, reopened.get("payouts"));
+        assertNull(reopened.get("disputes"));
+        assertEquals(2, reopened.size());
+        reopened.close();
+    }
+
+    @Test
+    void dropsPartiallyWrittenRecord() throws IOException {
+        EmbeddingCache cache = new EmbeddingCache(properties);
+        cache.put("refunds", new float[]{1f, 2f, 3f, 4f});
+        cache.close();
+        Path file = directory.resolve("test-model-4.vec");
+        Files.write(file, new byte[]{1, 2, 3}, StandardOpenOption.APPEND);
+
+        EmbeddingCache reopened = new EmbeddingCache(properties);
+
+        assertArrayEquals(new float[]{1f, 2f, 3f, 4f}, reopened.get("refunds"));
+        assertEquals(1, reopened.size());
+        reopened.close();
+        assertEquals(2 * Integer.BYTES + 32 + 4 * Float.BYTES, Files.size(file));
+    }
+
+    @Test
+    void ignoresEmbeddingOfOtherDimension() {
+        EmbeddingCache cache = new EmbeddingCache(properties);
+        cache.put("refunds", new float[]{1f, 2f});
+
+        assertNull(cache.get("refunds"));
+        cache.close();
+    }
+}
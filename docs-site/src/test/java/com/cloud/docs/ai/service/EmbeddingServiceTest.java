@@ -0,0 +1,52 @@
+package com.cloud.docs.ai.service;
+
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.retry.TransientAiException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.RestClientResponseException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EmbeddingServiceTest {
+
+    @Test
+    void retriesThrottledAndUnavailableGrpcCalls() {
+        assertTrue(EmbeddingService.isTransient(new RuntimeException("Embedding failed", new StatusRuntimeException(Status.RESOURCE_EXHAUSTED))));
+        assertTrue(EmbeddingService.isTransient(new StatusRuntimeException(Status.UNAVAILABLE)));
+    }
+
+    @Test
+    void doesNotRetryRejectedGrpcCalls() {
+        assertFalse(EmbeddingService.isTransient(new StatusRuntimeException(Status.INVALID_ARGUMENT)));
+        assertFalse(EmbeddingService.isTransient(new StatusRuntimeException(Status.PERMISSION_DENIED)));
+    }
+
+    @Test
+    void judgesHttpErrorsByStatus() {
+        assertTrue(EmbeddingService.isTransient(httpError(HttpStatus.TOO_MANY_REQUESTS)));
+        assertTrue(EmbeddingService.isTransient(httpError(HttpStatus.SERVICE_UNAVAILABLE)));
+        assertFalse(EmbeddingService.isTransient(httpError(HttpStatus.BAD_REQUEST)));
+    }
+
+    @Test
+    void ignoresStatusCodesInMessages() {
+        assertFalse(EmbeddingService.isTransient(new IllegalArgumentException("Chunk 429 exceeds the input limit")));
+        assertFalse(EmbeddingService.isTransient(new RuntimeException("UNAVAILABLE field in request")));
+    }
+
+    @Test
+    void retriesTransientAiAndIoFailures() {
+        assertTrue(EmbeddingService.isTransient(new TransientAiException("Server overloaded")));
+        assertTrue(EmbeddingService.isTransient(new UncheckedIOException(new IOException("Connection reset"))));
+    }
+
+    private static RestClientResponseException httpError(HttpStatus status) {
+        return new RestClientResponseException(status.name(), status, status.name(), null, null, null);
+    }
+}
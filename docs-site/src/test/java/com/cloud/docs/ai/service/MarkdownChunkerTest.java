@@ -0,0 +1,79 @@
+package com.cloud.docs.ai.service;
+
+import com.cloud.docs.ai.config.AiProperties;
+import org.commonmark.parser.Parser;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MarkdownChunkerTest {
+
+    private final AiProperties properties = new AiProperties();
+    private final MarkdownChunker chunker = new MarkdownChunker(Parser.builder().build(), properties);
+
+    @Test
+    void prefixesChunksWithTheirHeadingTrail() {
+        List<String> chunks = split("# Payments guide\n\n## Refunds\n\nRefunds are asynchronous.");
+
+        assertEquals(List.of("Payments guide > Refunds\n\nRefunds are asynchronous."), chunks);
+    }
+
+    @Test
+    void startsNewChunkAtHeadingOnceSectionIsLongEnough() {
+        properties.getEmbedding().getChunking().setMinTokens(5);
+        List<String> chunks = split("# Guide\n\n## Refunds\n\nRefunds settle within five business days.\n\n"
+                + "## Disputes\n\nDisputes are opened by the card holder's bank.");
+
+        assertEquals(List.of(
+                "Guide > Refunds\n\nRefunds settle within five business days.",
+                "Guide > Disputes\n\nDisputes are opened by the card holder's bank."), chunks);
+    }
+
+    @Test
+    void mergesShortSectionIntoNextOne() {
+        properties.getEmbedding().getChunking().setMinTokens(64);
+        List<String> chunks = split("# Guide\n\n## Refunds\n\nSee below.\n\n## Disputes\n\nDisputes take longer.");
+
+        assertEquals(List.of("Guide > Refunds\n\nSee below.\n\nDisputes\n\nDisputes take longer."), chunks);
+    }
+
+    @Test
+    void keepsCodeBlockLineBreaks() {
+        List<String> chunks = split("# Refunds\n\n```bash\ncurl -X POST /refunds \\\n  -d amount=100\n```");
+
+        assertEquals(List.of("Refunds\n\n```bash\ncurl -X POST /refunds \\\n  -d amount=100\n```"), chunks);
+    }
+
+    @Test
+    void splitsOversizedBlockAtWordBoundariesWithinBudget() {
+        properties.getEmbedding().getChunking().setMaxTokens(10);
+        String paragraph = "word ".repeat(60).strip();
+        List<String> chunks = split("# Guide\n\n" + paragraph);
+
+        int maxChars = 10 * MarkdownChunker.CHARS_PER_TOKEN;
+        assertTrue(chunks.size() > 1);
+        StringBuilder words = new StringBuilder();
+        for (String chunk : chunks) {
+            assertTrue(chunk.length() <= maxChars, chunk);
+            assertTrue(chunk.startsWith("Guide\n\n"), chunk);
+            words.append(' ').append(chunk.substring("Guide\n\n".length()));
+        }
+        assertEquals(paragraph, words.toString().strip());
+    }
+
+    @Test
+    void producesNothingForBlankDocument() {
+        assertEquals(List.of(), split("  \n\n"));
+        assertEquals(List.of(), split(null));
+    }
+
+    private List<String> split(String markdown) {
+        List<String> chunks = new ArrayList<>();
+        chunker.split(markdown, chunks::add);
+        return chunks;
+    }
+}
@@ -0,0 +1,84 @@
+package com.cloud.docs.ai.service;
+
+import com.cloud.docs.ai.model.CoalescingStats;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SingleFlightTest {
+
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>();
+    private final AtomicInteger computations = new AtomicInteger();
+
+    @Test
+    void concurrentCallersShareOneComputation() throws Exception {
+        CompletableFuture<String> pending = new CompletableFuture<>();
+
+        CompletableFuture<String> first = singleFlight.execute("refunds", () -> count(pending));
+        CompletableFuture<String> second = singleFlight.execute("refunds", () -> count(CompletableFuture.completedFuture("other")));
+        pending.complete("answer");
+
+        assertSame(first, second);
+        assertEquals("answer", second.get());
+        assertEquals(1, computations.get());
+        assertEquals(new CoalescingStats(1, 1, 0), singleFlight.stats());
+    }
+
+    @Test
+    void differentKeysRunSeparately() throws Exception {
+        CompletableFuture<String> refunds = singleFlight.execute("refunds", () -> count(new CompletableFuture<>()));
+        CompletableFuture<String> disputes = singleFlight.execute("disputes", () -> count(CompletableFuture.completedFuture("disputes")));
+
+        assertEquals("disputes", disputes.get());
+        assertFalse(refunds.isDone());
+        assertEquals(2, computations.get());
+    }
+
+    @Test
+    void callAfterCompletionStartsNewComputation() throws Exception {
+        assertEquals("first", singleFlight.execute("refunds", () -> count(CompletableFuture.completedFuture("first"))).get());
+        assertEquals("second", singleFlight.execute("refunds", () -> count(CompletableFuture.completedFuture("second"))).get());
+
+        assertEquals(2, computations.get());
+        assertEquals(0, singleFlight.stats().inFlight());
+    }
+
+    @Test
+    void sharesFailureWithEveryCallerAndThenForgetsIt() throws Exception {
+        CompletableFuture<String> pending = new CompletableFuture<>();
+        CompletableFuture<String> first = singleFlight.execute("refunds", () -> count(pending));
+        CompletableFuture<String> second = singleFlight.execute("refunds", () -> count(new CompletableFuture<>()));
+        pending.completeExceptionally(new IllegalStateException("model unavailable"));
+
+        for (CompletableFuture<String> caller : List.of(first, second)) {
+            ExecutionException error = assertThrows(ExecutionException.class, caller::get);
+            assertTrue(error.getCause() instanceof IllegalStateException);
+        }
+        assertEquals("retried", singleFlight.execute("refunds", () -> count(CompletableFuture.completedFuture("retried"))).get());
+    }
+
+    @Test
+    void computationThatThrowsFailsTheFuture() {
+        CompletableFuture<String> result = singleFlight.execute("refunds", () -> {
+            throw new IllegalArgumentException("bad question");
+        });
+
+        ExecutionException error = assertThrows(ExecutionException.class, result::get);
+        assertTrue(error.getCause() instanceof IllegalArgumentException);
+        assertEquals(0, singleFlight.stats().inFlight());
+    }
+
+    private CompletableFuture<String> count(CompletableFuture<String> computation) {
+        computations.incrementAndGet();
+        return computation;
+    }
+}
@@ -0,0 +1,62 @@
+package com.cloud.docs.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class Bm25IndexTest {
+
+    private final Bm25Index index = build(
+            "Refunds are processed asynchronously after the payment settles.",
+            "Call getCustomerById to fetch a customer record.",
+            "A refund fails with INSUFFICIENT_FUNDS when the balance is too low. Retry the refund later.",
+            "Webhooks notify you about payment events.");
+
+    @Test
+    void ranksShorterRowHigherForSameTermFrequency() {
+        assertArrayEquals(new int[]{3, 0}, index.search("payment", 10));
+    }
+
+    @Test
+    void ranksRowsMatchingMoreTermsFirst() {
+        assertArrayEquals(new int[]{2, 3, 0}, index.search("refund payment balance", 10));
+    }
+
+    @Test
+    void matchesIdentifiersWholeAndByPart() {
+        assertArrayEquals(new int[]{1}, index.search("getCustomerById", 10));
+        assertArrayEquals(new int[]{1}, index.search("customer", 10));
+        assertArrayEquals(new int[]{2}, index.search("insufficient funds", 10));
+    }
+
+    @Test
+    void neverReturnsRowsWithoutMatchingTerms() {
+        assertArrayEquals(new int[0], index.search("kubernetes", 10));
+        assertArrayEquals(new int[]{3}, index.search("webhooks", 10));
+    }
+
+    @Test
+    void restrictsSearchToGivenRows() {
+        assertArrayEquals(new int[]{3}, index.search("payment", 10, new int[]{1, 3}));
+        assertArrayEquals(new int[0], index.search("payment", 10, new int[0]));
+    }
+
+    @Test
+    void listsTermsStartingWithPrefix() {
+        List<String> terms = index.termsStartingWith("pay", 10);
+
+        assertEquals(List.of("payment"), terms);
+        assertEquals(List.of(), index.termsStartingWith("zzz", 10));
+    }
+
+    private static Bm25Index build(String... texts) {
+        Bm25Index.Builder builder = new Bm25Index.Builder();
+        for (int row = 0; row < texts.length; row++) {
+            builder.add(row, texts[row]);
+        }
+        return builder.build();
+    }
+}
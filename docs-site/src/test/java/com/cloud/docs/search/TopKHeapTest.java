@@ -0,0 +1,65 @@
+package com.cloud.docs.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TopKHeapTest {
+
+    @Test
+    void keepsBestScoresBestFirst() {
+        TopKHeap heap = new TopKHeap(3);
+        float[] scores = {0.2f, 0.9f, 0.1f, 0.7f, 0.5f, 0.8f};
+        for (int row = 0; row < scores.length; row++) {
+            heap.offer(row, scores[row]);
+        }
+
+        assertEquals(3, heap.size());
+        assertArrayEquals(new int[]{1, 5, 3}, heap.drainDescending());
+        assertEquals(0, heap.size());
+    }
+
+    @Test
+    void returnsFewerRowsThanCapacity() {
+        TopKHeap heap = new TopKHeap(10);
+        heap.offer(4, 0.3f);
+        heap.offer(7, 0.6f);
+
+        assertArrayEquals(new int[]{7, 4}, heap.drainDescending());
+    }
+
+    @Test
+    void keepsNothingWithZeroCapacity() {
+        TopKHeap heap = new TopKHeap(0);
+        heap.offer(1, 1.0f);
+
+        assertArrayEquals(new int[0], heap.drainDescending());
+    }
+
+    @Test
+    void mergedPartitionsMatchOneHeapOverAllRows() {
+        Random random = new Random(42);
+        float[] scores = new float[1000];
+        for (int row = 0; row < scores.length; row++) {
+            scores[row] = random.nextFloat();
+        }
+        TopKHeap merged = new TopKHeap(10);
+        for (int start = 0; start < scores.length; start += 100) {
+            TopKHeap partition = new TopKHeap(10);
+            for (int row = start; row < start + 100; row++) {
+                partition.offer(row, scores[row]);
+            }
+            merged.merge(partition);
+        }
+
+        int[] expected = IntStream.range(0, scores.length).boxed()
+                .sorted(Comparator.comparingDouble(row -> -scores[row]))
+                .limit(10).mapToInt(Integer::intValue).toArray();
+        assertArrayEquals(expected, merged.drainDescending());
+    }
+}